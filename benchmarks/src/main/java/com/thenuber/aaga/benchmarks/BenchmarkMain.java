@@ -0,0 +1,19 @@
+package com.thenuber.aaga.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Point d'entrée de benchmarks.jar: options JMH habituelles (filtre, -p graph=..., -f, -wi, -i...),
+ * avec le profileur GC toujours actif pour rapporter le taux d'allocation (gc.alloc.rate.norm).
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,38 @@
+package com.thenuber.aaga.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.thenuber.aaga.CsrGraph;
+import com.thenuber.aaga.GirvanNewman;
+
+/**
+ * Betweenness exacte (Brandes, toutes les sources) sur un thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BetweennessBenchmark {
+
+    @Param({ "sample.edgelist", "graphmoyen.txt", "facebook_combined.txt", "er-2000-8000", "cliques-100-8" })
+    public String graph;
+
+    private CsrGraph g;
+    private GirvanNewman gn;
+
+    @Setup
+    public void setup() throws IOException {
+        g = Datasets.csr(graph);
+        gn = new GirvanNewman();
+    }
+
+    @Benchmark
+    public double[] edgeBetweenness() {
+        return gn.edgeBetweenness(g);
+    }
+}
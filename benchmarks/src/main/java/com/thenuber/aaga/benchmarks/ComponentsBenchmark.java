@@ -0,0 +1,45 @@
+package com.thenuber.aaga.benchmarks;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.thenuber.aaga.CsrGraph;
+import com.thenuber.aaga.SimpleGraph;
+import com.thenuber.aaga.Vertex;
+
+/**
+ * Composantes connexes: SimpleGraph (Map par sommet) et CsrGraph (tableau d'entiers).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentsBenchmark {
+
+    @Param({ "sample.edgelist", "graphmoyen.txt", "facebook_combined.txt", "er-2000-8000", "cliques-100-8" })
+    public String graph;
+
+    private SimpleGraph simple;
+    private CsrGraph csr;
+
+    @Setup
+    public void setup() throws IOException {
+        simple = Datasets.simple(graph);
+        csr = CsrGraph.of(simple);
+    }
+
+    @Benchmark
+    public Map<Vertex, Integer> simpleGraphConnectedComponents() {
+        return simple.getConnectedComponents();
+    }
+
+    @Benchmark
+    public int[] csrConnectedComponents() {
+        return csr.connectedComponents();
+    }
+}
@@ -0,0 +1,82 @@
+package com.thenuber.aaga.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+import com.thenuber.aaga.CsrGraph;
+import com.thenuber.aaga.GraphLoader;
+import com.thenuber.aaga.SimpleGraph;
+
+/**
+ * Datasets
+ *  - Graphes utilisés par les benchmarks, désignés par le paramètre JMH "graph":
+ *      * un fichier de data/ (répertoire donné par la propriété système aaga.data, "data" par défaut):
+ *        sample.edgelist (délimiteur tabulation), graphmoyen.txt, facebook_combined.txt (espace);
+ *      * un graphe généré (graine fixe): "er-n-m" (Erdős–Rényi G(n, m)) ou "cliques-k-s" (anneau de k
+ *        cliques de s sommets reliées par une arête, comme dans les tests).
+ *  - Les graphes générés sont écrits dans un fichier temporaire pour passer par le même chargeur.
+ */
+public final class Datasets {
+
+    private Datasets() { }
+
+    /**
+     * Fichier de liste d'arêtes du graphe name (généré au besoin).
+     */
+    public static Path file(String name) throws IOException {
+        if (name.startsWith("er-") || name.startsWith("cliques-")) {
+            Path file = Files.createTempFile("aaga-" + name + "-", ".txt");
+            file.toFile().deleteOnExit();
+            generate(name, file);
+            return file;
+        }
+        Path file = Paths.get(System.getProperty("aaga.data", "data"), name);
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("Dataset not found: " + file.toAbsolutePath() + " (set -Daaga.data=<dir>)");
+        }
+        return file;
+    }
+
+    /**
+     * Délimiteur du fichier de name.
+     */
+    public static String delimiter(String name) {
+        return name.endsWith(".edgelist") ? "\\t" : " ";
+    }
+
+    public static CsrGraph csr(String name) throws IOException {
+        return GraphLoader.loadCsr(file(name).toString(), delimiter(name));
+    }
+
+    public static SimpleGraph simple(String name) throws IOException {
+        return GraphLoader.loadEdgeList(file(name).toString(), delimiter(name));
+    }
+
+    private static void generate(String name, Path file) throws IOException {
+        String[] parts = name.split("-");
+        int a = Integer.parseInt(parts[1]);
+        int b = Integer.parseInt(parts[2]);
+        SplittableRandom rng = new SplittableRandom(42);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            if (parts[0].equals("er")) {
+                // G(n, m): m endpoints pairs drawn uniformly (loops and duplicates are dropped by the loader)
+                for (int k = 0; k < b; k++) {
+                    out.println(rng.nextInt(a) + " " + rng.nextInt(a));
+                }
+            } else {
+                for (int c = 0; c < a; c++) {
+                    for (int i = 0; i < b; i++) {
+                        for (int j = i + 1; j < b; j++) {
+                            out.println((c * b + i) + " " + (c * b + j));
+                        }
+                    }
+                    out.println((c * b) + " " + (((c + 1) % a) * b + 1));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.thenuber.aaga.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.thenuber.aaga.CsrGraph;
+import com.thenuber.aaga.GraphLoader;
+import com.thenuber.aaga.GraphSnapshot;
+import com.thenuber.aaga.SimpleGraph;
+
+/**
+ * Chargement: chargeur texte d'origine, chargeur rapide (SimpleGraph et CSR) et snapshot binaire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoaderBenchmark {
+
+    @Param({ "sample.edgelist", "graphmoyen.txt", "facebook_combined.txt", "er-200000-1000000", "cliques-100-8" })
+    public String graph;
+
+    private String file;
+    private String delimiter;
+    private String snapshot;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Datasets.file(graph).toString();
+        delimiter = Datasets.delimiter(graph);
+        Path bin = Files.createTempFile("aaga-" + graph + "-", ".bin");
+        bin.toFile().deleteOnExit();
+        snapshot = bin.toString();
+        GraphSnapshot.write(GraphLoader.loadCsr(file, delimiter), snapshot);
+    }
+
+    @Benchmark
+    public SimpleGraph loadEdgeListText() throws IOException {
+        return GraphLoader.loadEdgeListText(file, delimiter);
+    }
+
+    @Benchmark
+    public SimpleGraph loadEdgeList() throws IOException {
+        return GraphLoader.loadEdgeList(file, delimiter);
+    }
+
+    @Benchmark
+    public CsrGraph loadCsr() throws IOException {
+        return GraphLoader.loadCsr(file, delimiter);
+    }
+
+    @Benchmark
+    public CsrGraph readSnapshot() throws IOException {
+        return GraphSnapshot.read(snapshot);
+    }
+}
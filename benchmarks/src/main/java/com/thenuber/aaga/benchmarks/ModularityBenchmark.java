@@ -0,0 +1,72 @@
+package com.thenuber.aaga.benchmarks;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.thenuber.aaga.CsrGraph;
+import com.thenuber.aaga.Modularity;
+import com.thenuber.aaga.SimpleGraph;
+import com.thenuber.aaga.Vertex;
+
+/**
+ * Modularité d'une partition fixe: blocs de 32 sommets consécutifs dans l'ordre d'un BFS (des
+ * communautés plausibles, avec des arêtes internes et externes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModularityBenchmark {
+
+    @Param({ "sample.edgelist", "graphmoyen.txt", "facebook_combined.txt", "er-2000-8000", "cliques-100-8" })
+    public String graph;
+
+    private SimpleGraph simple;
+    private CsrGraph csr;
+    private int[] labels;
+    private Map<Vertex, Integer> partition;
+
+    @Setup
+    public void setup() throws IOException {
+        simple = Datasets.simple(graph);
+        csr = CsrGraph.of(simple);
+
+        int n = csr.vertexCount();
+        labels = new int[n];
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        int tail = 0;
+        for (int s = 0; s < n; s++) {
+            if (seen[s]) continue;
+            seen[s] = true;
+            order[tail++] = s;
+            for (int head = tail - 1; head < tail; head++) {
+                int v = order[head];
+                for (int j = csr.firstSlot(v); j < csr.endSlot(v); j++) {
+                    int w = csr.target(j);
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        order[tail++] = w;
+                    }
+                }
+            }
+        }
+        for (int k = 0; k < n; k++) labels[order[k]] = k / 32;
+        partition = csr.toPartition(labels);
+    }
+
+    @Benchmark
+    public double simpleGraphModularity() {
+        return Modularity.compute(simple, partition);
+    }
+
+    @Benchmark
+    public double csrModularity() {
+        return Modularity.compute(csr, labels);
+    }
+}
@@ -0,0 +1,66 @@
+package com.thenuber.aaga.benchmarks;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.thenuber.aaga.BetweennessSamplingAlgo;
+import com.thenuber.aaga.CsrGraph;
+
+/**
+ * Betweenness estimée (BSA, graine fixe) et tirage d'un plus court chemin entre deux sommets d'une
+ * même composante.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SamplingBenchmark {
+
+    @Param({ "sample.edgelist", "graphmoyen.txt", "facebook_combined.txt", "er-2000-8000", "cliques-100-8" })
+    public String graph;
+
+    private static final int PAIRS = 1024;
+
+    private CsrGraph g;
+    private BetweennessSamplingAlgo bsa;
+    private int[] sources;
+    private int[] targets;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        g = Datasets.csr(graph);
+        bsa = new BetweennessSamplingAlgo();
+        bsa.setSeed(42);
+
+        // Pairs of distinct vertices of the same component
+        int[] component = g.connectedComponents();
+        SplittableRandom rng = new SplittableRandom(42);
+        sources = new int[PAIRS];
+        targets = new int[PAIRS];
+        for (int k = 0; k < PAIRS; ) {
+            int u = rng.nextInt(g.vertexCount());
+            int v = rng.nextInt(g.vertexCount());
+            if (u != v && component[u] == component[v]) {
+                sources[k] = u;
+                targets[k++] = v;
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] sampledEdgeBetweenness() {
+        return bsa.sampledEdgeBetweenness(g);
+    }
+
+    @Benchmark
+    public int[] computeRandomShortestPath() {
+        int k = next++ & (PAIRS - 1);
+        return bsa.computeRandomShortestPath(g, sources[k], targets[k]);
+    }
+}
@@ -0,0 +1,359 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * AnalysisServer
+ *  - Serveur HTTP local (127.0.0.1 seulement) qui garde les graphes chargés en mémoire et exécute les
+ *    algorithmes à la demande: le chargement et la compilation JIT ne sont payés qu'une fois.
+ *  - Points d'entrée (paramètres dans la query string, réponses JSON sauf /partition):
+ *      * POST /graphs?path=...&delimiter=...: charge un fichier (GraphLoader.loadCsr), renvoie son
+ *        empreinte (contentHash), qui désigne le graphe dans les autres requêtes;
+ *      * GET /graphs: graphes chargés;
+ *      * POST /run?graph=...&a=gn&...: exécute un algorithme, options de même nom que celles de la
+ *        ligne de commande (a, t, s, epsilon, delta, c, adaptive, k, stop-drop, ...), les drapeaux
+ *        valant true ou false (cf. runOptions); renvoie la modularité, les communautés, les itérations
+ *        et la clé du résultat;
+ *      * GET /partition?key=...: partition d'un résultat en cache, en TSV (nom, communauté).
+ *  - Les requêtes sont traitées en parallèle par un pool de workers. Les graphes sont partagés en
+ *    lecture seule: chaque algorithme travaille sur sa propre copie (ou ne modifie pas le graphe).
+ *  - Cache LRU de cacheSize résultats, clé = empreinte du graphe + options triées (hors -t et
+ *    --component-parallel, sans effet sur le résultat). Un algorithme aléatoire sans graine (-s)
+ *    n'est pas mis en cache. Deux requêtes identiques simultanées partagent la même exécution.
+ */
+public class AnalysisServer {
+
+    // Options of a run request, the keys of Main.parseArgs
+    static final Set<String> RUN_OPTIONS = Set.of("a", "t", "s", "epsilon", "delta", "c", "adaptive", "k",
+            "stop-drop", "patience", "batch-k", "batch-fraction", "no-refine", "parallel-moves", "resolution", "sync",
+            "max-sweeps", "component-parallel");
+
+    // Options without value on the command line: true or false in a request
+    static final Set<String> FLAGS = Set.of("adaptive", "no-refine", "parallel-moves", "sync", "component-parallel");
+
+    // Options without effect on the result, left out of the cache key
+    private static final Set<String> NEUTRAL = Set.of("t", "component-parallel");
+
+    // Algorithms whose result depends on the seed
+    private static final Set<String> RANDOMIZED = Set.of("bsa", "louvain", "lpa");
+
+    private final HttpServer http;
+    private final ExecutorService workers;
+    private final Map<String, CsrGraph> graphs = new ConcurrentHashMap<>();
+    private final Map<String, Result> cache;
+    private final Map<String, CompletableFuture<Result>> running = new ConcurrentHashMap<>();
+
+    /**
+     * Serveur sur 127.0.0.1:port (0: port libre quelconque), workers requêtes en parallèle, cacheSize
+     * résultats en cache.
+     */
+    public AnalysisServer(int port, int workers, int cacheSize) throws IOException {
+        if (workers < 1 || cacheSize < 0) {
+            throw new IllegalArgumentException("workers must be at least 1 and cache size non-negative");
+        }
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, Result>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.workers = Executors.newFixedThreadPool(workers);
+        this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.http.setExecutor(this.workers);
+        this.http.createContext("/graphs", this::graphs);
+        this.http.createContext("/run", this::run);
+        this.http.createContext("/partition", this::partition);
+    }
+
+    public void start() { http.start(); }
+
+    /**
+     * Arrête le serveur (les requêtes en cours ont delaySeconds secondes pour se terminer).
+     */
+    public void stop(int delaySeconds) {
+        http.stop(delaySeconds);
+        workers.shutdown();
+    }
+
+    public int port() { return http.getAddress().getPort(); }
+
+    /**
+     * Résultat d'une exécution: partition retenue (cf. Main.selectedLevel) et métriques.
+     */
+    static final class Result {
+        final String graph;
+        final int[] labels;
+        final double modularity;
+        final int communities;
+        final int iterations;
+        final long timeMs;
+
+        Result(String graph, int[] labels, double modularity, int communities, int iterations, long timeMs) {
+            this.graph = graph;
+            this.labels = labels;
+            this.modularity = modularity;
+            this.communities = communities;
+            this.iterations = iterations;
+            this.timeMs = timeMs;
+        }
+    }
+
+    private void graphs(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> query = query(exchange);
+            if (exchange.getRequestMethod().equals("GET")) {
+                StringBuilder json = new StringBuilder("[");
+                for (Map.Entry<String, CsrGraph> e : new TreeMap<>(graphs).entrySet()) {
+                    if (json.length() > 1) json.append(',');
+                    json.append("{\"graph\":\"").append(e.getKey()).append("\",\"vertices\":")
+                            .append(e.getValue().vertexCount()).append(",\"edges\":").append(e.getValue().edgeCount())
+                            .append('}');
+                }
+                send(exchange, 200, json.append("]\n").toString());
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("POST")) {
+                send(exchange, 405, error("use GET or POST"));
+                return;
+            }
+            String path = query.get("path");
+            if (path == null) {
+                send(exchange, 400, error("missing path"));
+                return;
+            }
+            long start = System.nanoTime();
+            CsrGraph g = GraphLoader.loadCsr(path, query.getOrDefault("delimiter", "\\t"));
+            String hash = contentHash(g);
+            CsrGraph resident = graphs.putIfAbsent(hash, g);
+            if (resident != null) g = resident;
+            send(exchange, 200, "{\"graph\":\"" + hash + "\",\"vertices\":" + g.vertexCount() + ",\"edges\":"
+                    + g.edgeCount() + ",\"load_ms\":" + (System.nanoTime() - start) / 1_000_000 + "}\n");
+        } catch (IOException | RuntimeException e) {
+            // Unreadable file, invalid delimiter pattern, corrupt snapshot
+            send(exchange, 400, error("cannot load graph: " + e.getMessage()));
+        }
+    }
+
+    private void run(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            send(exchange, 405, error("use POST"));
+            return;
+        }
+        Map<String, String> query = query(exchange);
+        CsrGraph g = graphs.get(query.getOrDefault("graph", ""));
+        if (g == null) {
+            send(exchange, 404, error("unknown graph"));
+            return;
+        }
+        try {
+            Map<String, String> opts = runOptions(query);
+            String graph = query.get("graph");
+            String key = resultKey(graph, opts);
+            boolean cacheable = cacheable(opts);
+            Result result = cacheable ? cache.get(key) : null;
+            boolean cached = result != null;
+            if (result == null) {
+                result = cacheable ? shared(key, g, graph, opts) : compute(g, graph, opts);
+            }
+            send(exchange, 200, "{\"key\":\"" + key + "\",\"graph\":\"" + graph + "\",\"algorithm\":\""
+                    + opts.getOrDefault("a", "gn") + "\",\"cached\":" + cached + ",\"modularity\":" + result.modularity
+                    + ",\"communities\":" + result.communities + ",\"iterations\":" + result.iterations
+                    + ",\"time_ms\":" + result.timeMs + "}\n");
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            send(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * Options d'exécution d'une requête (clés de RUN_OPTIONS). Un drapeau (FLAGS) vaut true ou false
+     * (true sans valeur); à false il est omis, comme absent de la ligne de commande, et ne change
+     * donc ni l'exécution ni la clé de cache. t est ramené au nombre de coeurs.
+     */
+    static Map<String, String> runOptions(Map<String, String> query) {
+        Map<String, String> opts = new TreeMap<>();
+        for (Map.Entry<String, String> e : query.entrySet()) {
+            if (!RUN_OPTIONS.contains(e.getKey())) continue;
+            if (FLAGS.contains(e.getKey())) {
+                if (e.getValue().equals("false")) continue;
+                if (!e.getValue().equals("true")) {
+                    throw new IllegalArgumentException(e.getKey() + " must be true or false");
+                }
+            }
+            opts.put(e.getKey(), e.getValue());
+        }
+        // At most one thread per core for each request (t does not change the result)
+        if (opts.containsKey("t")) {
+            int threads = Integer.parseInt(opts.get("t"));
+            opts.put("t", Integer.toString(Math.min(threads, Runtime.getRuntime().availableProcessors())));
+        }
+        return opts;
+    }
+
+    private void partition(HttpExchange exchange) throws IOException {
+        Result result = cache.get(query(exchange).getOrDefault("key", ""));
+        if (result == null) {
+            send(exchange, 404, error("unknown or evicted result"));
+            return;
+        }
+        CsrGraph g = graphs.get(result.graph);
+        StringBuilder tsv = new StringBuilder();
+        for (int v = 0; v < result.labels.length; v++) {
+            tsv.append(g.vertex(v).name()).append('\t').append(result.labels[v]).append('\n');
+        }
+        send(exchange, 200, tsv.toString());
+    }
+
+    // Runs key once, concurrent identical requests wait for the same result
+    private Result shared(String key, CsrGraph g, String graph, Map<String, String> opts) {
+        CompletableFuture<Result> mine = new CompletableFuture<>();
+        CompletableFuture<Result> other = running.putIfAbsent(key, mine);
+        if (other != null) return other.join();
+        try {
+            Result result = compute(g, graph, opts);
+            cache.put(key, result);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            running.remove(key);
+        }
+    }
+
+    // Runs opts on g; the threads of the algorithm stop with the request
+    private static Result compute(CsrGraph g, String graph, Map<String, String> opts) {
+        try (GraphAlgorithm algorithm = Main.createAlgorithm(opts)) {
+            if (algorithm == null) {
+                throw new IllegalArgumentException("unknown algorithm: " + opts.get("a"));
+            }
+            long start = System.nanoTime();
+            Dendrogram parts = algorithm.run(g);
+            long timeMs = (System.nanoTime() - start) / 1_000_000;
+            double[] curve = Main.modularityCurve(g, parts);
+            int level = Main.selectedLevel(curve, algorithm.getStopCriteria());
+            return new Result(graph, parts.labels(level), curve[level], parts.communityCount(level),
+                    parts.levelCount() - 1, timeMs);
+        }
+    }
+
+    /**
+     * Vrai si le résultat de opts est reproductible: algorithme déterministe, ou aléatoire avec graine.
+     */
+    static boolean cacheable(Map<String, String> opts) {
+        return !RANDOMIZED.contains(opts.getOrDefault("a", "gn")) || opts.containsKey("s");
+    }
+
+    /**
+     * Clé de cache: empreinte du graphe et options triées, sans celles qui ne changent pas le
+     * résultat (nombre de threads, exécution par composantes).
+     */
+    static String resultKey(String graph, Map<String, String> opts) {
+        StringBuilder key = new StringBuilder(graph);
+        for (Map.Entry<String, String> e : new TreeMap<>(opts).entrySet()) {
+            if (NEUTRAL.contains(e.getKey())) continue;
+            key.append('&').append(e.getKey()).append('=').append(e.getValue());
+        }
+        return hex(sha256().digest(key.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Empreinte SHA-256 (hexadécimale) du contenu de g: noms des sommets et arêtes présentes, dans
+     * l'ordre des indices. Deux fichiers qui donnent le même graphe ont la même empreinte.
+     */
+    static String contentHash(CsrGraph g) {
+        MessageDigest digest = sha256();
+        byte[] ints = new byte[4];
+        update(digest, ints, g.vertexCount());
+        for (int v = 0; v < g.vertexCount(); v++) {
+            byte[] name = g.vertex(v).name().getBytes(StandardCharsets.UTF_8);
+            update(digest, ints, name.length);
+            digest.update(name);
+        }
+        for (int v = 0; v < g.vertexCount(); v++) {
+            update(digest, ints, g.degree(v));
+            for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                if (!g.isRemoved(g.edgeAt(j))) update(digest, ints, g.target(j));
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, byte[] ints, int value) {
+        ints[0] = (byte) (value >>> 24);
+        ints[1] = (byte) (value >>> 16);
+        ints[2] = (byte) (value >>> 8);
+        ints[3] = (byte) value;
+        digest.update(ints);
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder s = new StringBuilder(2 * bytes.length);
+        for (byte b : bytes) s.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return s.toString();
+    }
+
+    // Query string parameters (a parameter without value maps to "true")
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "true" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    // JSON error body; messages can carry paths, quotes or line breaks from exceptions
+    static String error(String message) {
+        StringBuilder json = new StringBuilder(message.length() + 16).append("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') json.append('\\').append(c);
+            else if (c == '\n') json.append("\\n");
+            else if (c == '\r') json.append("\\r");
+            else if (c == '\t') json.append("\\t");
+            else if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+            else json.append(c);
+        }
+        return json.append("\"}\n").toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type",
+                body.startsWith("{") || body.startsWith("[") ? "application/json" : "text/tab-separated-values");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.thenuber.aaga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BatchRemoval
+ *  - Mode de suppression par lots: plusieurs arêtes par passe de betweenness au lieu des seules
+ *    arêtes ex-aequo au maximum, pour diviser le nombre de passes (au prix de l'exactitude).
+ *  - Au plus une décision par composante connexe et par passe: l'arête de plus grande betweenness
+ *    de la composante, avec ses ex-aequo exacts dans la composante (comme GN le fait pour le maximum
+ *    global). Une scission reste ainsi décidée sur des valeurs à jour pour sa composante.
+ *  - Parmi les composantes:
+ *      * setFraction(f): seules celles dont le maximum est >= (1 - f) * max sont gardées;
+ *      * setTopK(k): au plus les k de plus grand maximum.
+ *    Les deux limites peuvent être combinées. Sans aucune (par défaut), le mode est désactivé et les
+ *    algorithmes suppriment les arêtes ex-aequo au maximum comme avant.
+ */
+public class BatchRemoval {
+
+    private int topK = 0;
+    private double fraction = 0.0;
+
+    public BatchRemoval() { }
+
+    /**
+     * Au plus k composantes traitées par passe (0: pas de limite).
+     */
+    public void setTopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative");
+        }
+        this.topK = k;
+    }
+
+    public int getTopK() { return topK; }
+
+    /**
+     * Seules les composantes dont le maximum est à moins de f * max du maximum global sont traitées
+     * (0 <= f <= 1, 0: pas de seuil).
+     */
+    public void setFraction(double f) {
+        if (!(f >= 0 && f <= 1)) {
+            throw new IllegalArgumentException("fraction must be in [0, 1]");
+        }
+        this.fraction = f;
+    }
+
+    public double getFraction() { return fraction; }
+
+    public boolean isEnabled() {
+        return topK > 0 || fraction > 0;
+    }
+
+    /**
+     * Arêtes à supprimer dans cette passe, par betweenness décroissante: pour chacune des composantes
+     * retenues (limites setTopK / setFraction), ses arêtes de betweenness maximale. eb est indexé par
+     * id d'arête.
+     */
+    public List<Integer> select(CsrGraph g, double[] eb, ComponentTracker components) {
+
+        // Best edge of every component (lowest id among ties)
+        int k = components.componentCount();
+        int[] best = new int[k];
+        Arrays.fill(best, -1);
+        double max = 0.0;
+        for (int e = 0; e < eb.length; e++) {
+            if (g.isRemoved(e)) continue;
+            int c = components.component(g.edgeSource(e));
+            if (best[c] < 0 || eb[e] > eb[best[c]]) best[c] = e;
+            if (eb[e] > max) max = eb[e];
+        }
+
+        // Components above the threshold, by decreasing maximum then increasing best edge id
+        double threshold = fraction > 0 ? (1 - fraction) * max : Double.NEGATIVE_INFINITY;
+        List<Integer> candidates = new ArrayList<>();
+        for (int c = 0; c < k; c++) {
+            if (best[c] >= 0 && eb[best[c]] >= threshold) candidates.add(best[c]);
+        }
+        candidates.sort((a, b) -> {
+            int cmp = Double.compare(eb[b], eb[a]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+        if (topK > 0 && candidates.size() > topK) {
+            candidates = candidates.subList(0, topK);
+        }
+
+        // Selected components and their ties
+        boolean[] selected = new boolean[k];
+        for (int e : candidates) selected[components.component(g.edgeSource(e))] = true;
+        List<Integer> edges = new ArrayList<>();
+        for (int e : candidates) edges.add(e);
+        for (int e = 0; e < eb.length; e++) {
+            if (g.isRemoved(e)) continue;
+            int c = components.component(g.edgeSource(e));
+            if (selected[c] && e != best[c] && Double.compare(eb[e], eb[best[c]]) == 0) edges.add(e);
+        }
+        return edges;
+    }
+}
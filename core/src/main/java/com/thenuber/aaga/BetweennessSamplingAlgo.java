@@ -0,0 +1,653 @@
+package com.thenuber.aaga;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BetweennessSamplingAlgo
+ * - Variante de Girvan–Newman où la betweenness est estimée en tirant r plus courts chemins
+ * aléatoires (paires de sommets d'une même composante), r étant donné par computeSampleSize().
+ * - Diamètres estimés par composante et mis à jour seulement pour les composantes modifiées; les
+ * composantes arbres ne sont pas échantillonnées (valeur exacte) et le diamètre des autres fixe r.
+ * - Aléa: un seul SplittableRandom, initialisé par setSeed(seed) au début de run(). Chaque itération
+ * en dérive (split) un flux par bloc de SAMPLES_PER_TASK chemins, dans un ordre fixe.
+ * - Parallélisme: les blocs sont répartis sur setThreads(n) workers; chaque worker a son propre
+ * compteur de passages par arête et réutilise son PathSampler. Les compteurs sont entiers,
+ * leur somme ne dépend pas de la répartition: pour une graine donnée, le résultat est identique
+ * quel que soit le nombre de threads.
+ * - Mode adaptatif (setAdaptive): tirage par lots géométriques, arrêté dès que l'arête à supprimer
+ * est identifiée avec confiance 1 - delta (risque delta partagé entre le plafond, les tests et les
+ * arêtes, comme dans KADABRA, cf. isSeparated).
+ * - setTracing(true): trace par itération (cf. RunTrace), lue par getTrace().
+ * - setStopCriteria: arrêt anticipé (cf. StopCriteria).
+ * - setSplitLog: journal de scissions écrit sur disque au fil de l'exécution (cf. SplitLog).
+ */
+public class BetweennessSamplingAlgo implements GraphAlgorithm {
+
+    // Nombre de chemins tirés avec un même flux aléatoire
+    static final int SAMPLES_PER_TASK = 16;
+
+    // Taille du premier lot en mode adaptatif
+    static final int FIRST_BATCH = 32;
+
+    // Arêtes candidates du mode adaptatif: les plus tirées à l'itération précédente
+    static final int CANDIDATE_EDGES = 16;
+
+    // Part du risque delta donnée aux tests d'arrêt du mode adaptatif, le reste va au plafond
+    static final double STOP_RISK = 0.25;
+
+    private int vertexDiameter = -1;
+    private double epsilon = 0.2; // accuracy parameter : smaller = more accurate
+    private double delta = 0.3; // probability parameter : smaller = more reliable but increased sample size
+    private double c = 1.0; // constant (can be adjusted)
+
+    private long seed = new SplittableRandom().nextLong();
+    private SplittableRandom random;
+    private int threads = 1;
+    private ForkJoinPool pool;
+
+    // Informations par composante du dernier ComponentTracker vu (cf. refreshComponents)
+    private ComponentTracker cachedComponents;
+    private int[] cachedSize = new int[0];
+    private int[] cachedEdges = new int[0];
+    private int[] componentDiameter = new int[0];
+    private long[] treePairs = new long[0];
+    private int[] bfsOrder;
+    private int[] bfsParentEdge;
+    private int[] bfsDistance;
+
+    private boolean adaptive = false;
+    private CsrGraph previousGraph; // graphe et compteurs de la dernière itération, cf. candidates()
+    private int[] previousCounts;
+    private int[] samplesPerIteration = new int[16];
+    private int iterations = 0;
+
+    private boolean tracing = false;
+    private RunTrace trace;
+    private StopCriteria stopCriteria = new StopCriteria();
+    private SplitLog splitLog;
+    private BatchRemoval batch = new BatchRemoval();
+
+    public BetweennessSamplingAlgo() { }
+
+    public void setVertexDiameter(int vertexDiameter) { this.vertexDiameter = vertexDiameter; }
+    public void setEpsilon(double epsilon) { this.epsilon = epsilon; }
+    public void setDelta(double delta) { this.delta = delta; }
+    public void setC(double c) { this.c = c; }
+
+    /**
+     * Graine des tirages (aléatoire par défaut). Deux exécutions de même graine donnent le même résultat.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.random = null;
+    }
+
+    public long getSeed() { return seed; }
+
+    /**
+     * Mode adaptatif: à chaque itération, tirage par lots jusqu'à ce que l'arête en tête soit
+     * séparée des autres (à epsilon près) avec confiance 1 - delta; le plafond est
+     * computeSampleSize() calculé avec (1 - STOP_RISK) delta (le reste du risque va aux tests d'arrêt).
+     */
+    public void setAdaptive(boolean adaptive) { this.adaptive = adaptive; }
+
+    public boolean isAdaptive() { return adaptive; }
+
+    /**
+     * Nombre de threads utilisés pour l'échantillonnage (1 par défaut).
+     * Le résultat ne dépend pas de cette valeur.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        if (pool != null && threads != this.threads) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() { return threads; }
+
+    public void setTracing(boolean tracing) { this.tracing = tracing; }
+
+    public RunTrace getTrace() { return trace; }
+
+    public void setStopCriteria(StopCriteria criteria) { this.stopCriteria = criteria; }
+
+    public StopCriteria getStopCriteria() { return stopCriteria; }
+
+    public void setSplitLog(SplitLog log) { this.splitLog = log; }
+
+    public SplitLog getSplitLog() { return splitLog; }
+
+    /**
+     * Suppression par lots (cf. BatchRemoval; désactivée par défaut: arêtes ex-aequo au maximum).
+     */
+    public void setBatchRemoval(BatchRemoval batch) { this.batch = batch; }
+
+    public BatchRemoval getBatchRemoval() { return batch; }
+
+    protected ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    // Flux aléatoire courant, (ré)initialisé à partir de la graine
+    private SplittableRandom random() {
+        if (random == null) {
+            random = new SplittableRandom(seed);
+        }
+        return random;
+    }
+
+    public Dendrogram run(CsrGraph input) {
+        random = new SplittableRandom(seed);
+        iterations = 0;
+        cachedComponents = null;
+        previousGraph = null;
+        CsrGraph g = new CsrGraph(input);
+        ComponentTracker components = new ComponentTracker(g);
+        Dendrogram.Builder partitions = new Dendrogram.Builder(input, components.labels(), splitLog);
+        trace = new RunTrace("bsa", RunTrace.DIVISIVE_PHASES, tracing);
+        StopCriteria.Monitor stop = stopCriteria.monitor(input, components.labels());
+
+        while (g.edgeCount() > 0) {
+            trace.beginIteration();
+            double[] eb = sampledEdgeBetweenness(g, components);
+            trace.endPhase(RunTrace.BETWEENNESS);
+
+            List<Integer> toRemove = batch.isEnabled() ? batch.select(g, eb, components) : GirvanNewman.maxEdges(g, eb);
+            trace.endPhase(RunTrace.MAX_SCAN);
+
+            for (int e : toRemove) {
+                int child = components.removeEdge(e);
+                trace.endPhase(RunTrace.REMOVAL);
+                if (child >= 0) {
+                    partitions.split(components.lastParent(), child, components.lastMembers(), 0, components.lastSize());
+                    stop.split(components.lastParent(), child, components.lastMembers(), 0, components.lastSize());
+                }
+                trace.endPhase(RunTrace.PARTITION);
+            }
+
+            partitions.endStep();
+            trace.endPhase(RunTrace.PARTITION);
+            trace.endIteration(toRemove.size(), components.componentCount(), samplesPerIteration[iterations - 1]);
+
+            if (stop.endStep(partitions.communityCount())) break;
+        }
+
+        return partitions.build();
+    }
+
+    public double[] sampledEdgeBetweenness(CsrGraph input) {
+        return sampledEdgeBetweenness(input, new ComponentTracker(new CsrGraph(input)));
+    }
+
+    /**
+     * Betweenness estimée sur input, dont les composantes connexes courantes sont suivies par components.
+     * - Valeur d'une arête: proportion des paires ordonnées (u, v) de sommets connectés, u != v, dont le
+     * plus court chemin (tiré uniformément) passe par l'arête.
+     * - Composantes arbres: valeur exacte (s * (taille - s) paires de part et d'autre de l'arête),
+     * aucun chemin n'y est tiré. Sommets isolés: ignorés.
+     * - Autres composantes: paires tirées proportionnellement au nombre de paires de chaque composante,
+     * r = computeSampleSize(VD) où VD est la plus grande estimation de diamètre par composante
+     * (cf. refreshComponents), ou le diamètre fixé par setVertexDiameter.
+     * - Mode fixe: r chemins. Mode adaptatif (setAdaptive(true)): lots géométriques (FIRST_BATCH, puis
+     * doublement du nombre total de chemins), arrêt dès que l'arête en tête est séparée des autres,
+     * à epsilon près (cf. isSeparated), jusqu'au plafond r calculé avec (1 - STOP_RISK) delta. Les K
+     * tests possibles avant le plafond (nombre fixé par r) ont chacun le risque STOP_RISK delta / K.
+     * - Le nombre de chemins tirés est enregistré dans getSamplesPerIteration().
+     */
+    public double[] sampledEdgeBetweenness(CsrGraph input, ComponentTracker components) {
+
+        double[] bc = new double[input.edgeIdCount()];
+        refreshComponents(input, components);
+
+        // Components with a cycle are sampled, pairs of trees are counted exactly
+
+        int[] sampled = new int[components.componentCount()];
+        long[] cumulativePairs = new long[components.componentCount()];
+        int sampledCount = 0;
+        long sampledPairs = 0;
+        long allPairs = 0;
+        int maxDiameter = 0;
+        for (int cc = 0; cc < components.componentCount(); cc++) {
+            long size = components.size(cc);
+            if (size < 2) continue;
+            allPairs += size * (size - 1);
+            if (isTree(components, cc)) continue;
+            sampledPairs += size * (size - 1);
+            sampled[sampledCount] = cc;
+            cumulativePairs[sampledCount++] = sampledPairs;
+            maxDiameter = Math.max(maxDiameter, componentDiameter[cc]);
+        }
+
+        // If all nodes are isolated, return directly
+        if (allPairs == 0) {
+            recordSamples(0);
+            return bc;
+        }
+
+        for (int cc = 0; cc < components.componentCount(); cc++) {
+            if (components.size(cc) < 2 || !isTree(components, cc)) continue;
+            for (int k = 0; k < components.size(cc); k++) {
+                int v = components.member(cc, k);
+                for (int j = input.firstSlot(v), end = input.endSlot(v); j < end; j++) {
+                    int e = input.edgeAt(j);
+                    if (!input.isRemoved(e)) bc[e] = (double) treePairs[e] / allPairs;
+                }
+            }
+        }
+
+        if (sampledCount == 0) {
+            recordSamples(0);
+            return bc;
+        }
+
+        int diameter = vertexDiameter == -1 ? maxDiameter : vertexDiameter;
+        int[] counts = new int[input.edgeIdCount()];
+        int samples = 0;
+        if (!adaptive) {
+            int r = computeSampleSize(diameter);
+            samples = r;
+            sample(input, components, sampled, cumulativePairs, sampledCount, r, counts);
+        } else {
+            // Geometric batches: FIRST_BATCH, then double the total, until separation or the cap r
+            int r = sampleSize(diameter, delta * (1 - STOP_RISK));
+            int checks = 0;
+            for (long total = FIRST_BATCH; total < r; total *= 2) checks++;
+            boolean[] candidate = candidates(input);
+            while (samples < r) {
+                int batch = Math.min(r, samples == 0 ? FIRST_BATCH : 2 * samples) - samples;
+                sample(input, components, sampled, cumulativePairs, sampledCount, batch, counts);
+                samples += batch;
+                if (samples < r && isSeparated(input, counts, samples, candidate, delta * STOP_RISK / checks, epsilon)) break;
+            }
+            previousGraph = input;
+            previousCounts = counts;
+        }
+        recordSamples(samples);
+
+        // A sampled pair stands for sampledPairs / allPairs of all pairs
+        double scale = (double) sampledPairs / allPairs / samples;
+        for (int e = 0; e < counts.length; e++) {
+            if (counts[e] != 0) bc[e] = counts[e] * scale;
+        }
+        return bc;
+    }
+
+    private static boolean isTree(ComponentTracker components, int cc) {
+        return components.edgeCount(cc) == components.size(cc) - 1;
+    }
+
+    /**
+     * Met à jour les informations des composantes modifiées depuis l'appel précédent (taille ou nombre
+     * d'arêtes différents), pour le même ComponentTracker:
+     * - arbre: nombre de paires ordonnées séparées par chaque arête (treePairs), via les tailles de
+     * sous-arbres d'un BFS;
+     * - sinon: borne du diamètre en sommets par un BFS depuis un sommet tiré au hasard,
+     * VD <= d1 + d2 + 1 où d1 >= d2 sont les deux plus grandes distances (le plus court chemin entre
+     * x et y passe au plus par d(s,x) + d(s,y) arêtes).
+     * - Coût O(vol) par composante modifiée: seules la composante scindée et la nouvelle composante
+     * sont reparcourues après une suppression.
+     */
+    private void refreshComponents(CsrGraph g, ComponentTracker components) {
+        int n = g.vertexCount();
+        if (components != cachedComponents || treePairs.length != g.edgeIdCount()) {
+            cachedComponents = components;
+            cachedSize = new int[0];
+            cachedEdges = new int[0];
+            componentDiameter = new int[0];
+            treePairs = new long[g.edgeIdCount()];
+            bfsOrder = new int[n];
+            bfsParentEdge = new int[n];
+            bfsDistance = new int[n];
+            Arrays.fill(bfsDistance, -1);
+        }
+        int k = components.componentCount();
+        if (cachedSize.length < k) {
+            int length = Math.max(k, 2 * cachedSize.length);
+            cachedSize = Arrays.copyOf(cachedSize, length);
+            cachedEdges = Arrays.copyOf(cachedEdges, length);
+            componentDiameter = Arrays.copyOf(componentDiameter, length);
+        }
+
+        SplittableRandom rng = null;
+        for (int cc = 0; cc < k; cc++) {
+            int size = components.size(cc);
+            if (size < 2 || (cachedSize[cc] == size && cachedEdges[cc] == components.edgeCount(cc))) continue;
+            cachedSize[cc] = size;
+            cachedEdges[cc] = components.edgeCount(cc);
+
+            if (isTree(components, cc)) {
+                // Pairs separated by each tree edge, from subtree sizes (reverse BFS order)
+                int visited = bfs(g, components.member(cc, 0));
+                int[] subtree = bfsDistance; // distances are no longer needed: reused for subtree sizes
+                for (int i = 0; i < visited; i++) subtree[bfsOrder[i]] = 1;
+                for (int i = visited - 1; i > 0; i--) {
+                    int x = bfsOrder[i];
+                    int e = bfsParentEdge[x];
+                    long s = subtree[x];
+                    treePairs[e] = 2 * s * (size - s);
+                    int parent = g.edgeSource(e) == x ? g.edgeTarget(e) : g.edgeSource(e);
+                    subtree[parent] += subtree[x];
+                }
+                for (int i = 0; i < visited; i++) bfsDistance[bfsOrder[i]] = -1;
+            } else {
+                if (rng == null) rng = random().split();
+                int visited = bfs(g, components.member(cc, rng.nextInt(size)));
+                componentDiameter[cc] = bfsDistance[bfsOrder[visited - 1]] + bfsDistance[bfsOrder[visited - 2]] + 1;
+                for (int i = 0; i < visited; i++) bfsDistance[bfsOrder[i]] = -1;
+            }
+        }
+    }
+
+    // BFS from source into bfsOrder / bfsDistance / bfsParentEdge, returns the number of visited vertices
+    private int bfs(CsrGraph g, int source) {
+        int head = 0, tail = 0;
+        bfsOrder[tail++] = source;
+        bfsDistance[source] = 0;
+        while (head < tail) {
+            int v = bfsOrder[head++];
+            for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                int e = g.edgeAt(j);
+                if (g.isRemoved(e)) continue;
+                int w = g.target(j);
+                if (bfsDistance[w] < 0) {
+                    bfsDistance[w] = bfsDistance[v] + 1;
+                    bfsParentEdge[w] = e;
+                    bfsOrder[tail++] = w;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Tire samples chemins et ajoute leurs passages par arête à counts.
+     * - Les chemins sont découpés en blocs de SAMPLES_PER_TASK, chaque bloc reçoit un flux dérivé
+     * (split) du flux courant, dans l'ordre des blocs.
+     * - Chaque worker compte les passages dans son propre tableau d'entiers.
+     */
+    private void sample(CsrGraph input, ComponentTracker components, int[] sampled, long[] cumulativePairs,
+            int sampledCount, int samples, int[] counts) {
+        // One stream per block, split in a fixed order so that blocks do not depend on the scheduling
+        int blocks = (samples + SAMPLES_PER_TASK - 1) / SAMPLES_PER_TASK;
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            streams[b] = random().split();
+        }
+
+        // Workers pull blocks until none is left, each one counting into its own accumulator
+        AtomicInteger nextBlock = new AtomicInteger();
+        List<SamplingTask> workers = new ArrayList<>();
+        for (int t = 0; t < Math.min(threads, blocks); t++) {
+            workers.add(new SamplingTask(input, components, sampled, cumulativePairs, sampledCount, streams,
+                    samples, nextBlock));
+        }
+        pool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(workers);
+            }
+        });
+
+        // Integer counts: the sum does not depend on which worker drew which block
+        for (SamplingTask worker : workers) {
+            for (int e = 0; e < counts.length; e++) {
+                counts[e] += worker.counts[e];
+            }
+        }
+    }
+
+    /**
+     * Arêtes candidates d'une itération adaptative sur g: les CANDIDATE_EDGES arêtes présentes les plus
+     * tirées à l'itération précédente (ex-aequo compris), null à la première itération. Elles ne
+     * dépendent pas des chemins de l'itération: les risques de isSeparated sont fixés avant le tirage.
+     */
+    private boolean[] candidates(CsrGraph g) {
+        if (previousGraph != g) return null;
+        int[] top = new int[CANDIDATE_EDGES]; // largest previous counts, decreasing
+        for (int e = 0; e < previousCounts.length; e++) {
+            int c = previousCounts[e];
+            if (g.isRemoved(e) || c <= top[CANDIDATE_EDGES - 1]) continue;
+            int k = CANDIDATE_EDGES - 1;
+            for (; k > 0 && top[k - 1] < c; k--) top[k] = top[k - 1];
+            top[k] = c;
+        }
+        int threshold = Math.max(1, top[CANDIDATE_EDGES - 1]);
+        boolean[] candidate = new boolean[previousCounts.length];
+        for (int e = 0; e < previousCounts.length; e++) {
+            candidate[e] = !g.isRemoved(e) && previousCounts[e] >= threshold;
+        }
+        return candidate;
+    }
+
+    /**
+     * Test d'arrêt du mode adaptatif, après samples chemins, de risque confidence.
+     * - Pour une arête e, X = 1 si le chemin tiré passe par e: X est dans [0, 1], de moyenne b et de
+     * variance au plus b. Borne de Bernstein (cf. lowerBound, upperBound): avec probabilité au moins
+     * 1 - p, b >= lowerBound(c, samples, p), et de même pour upperBound.
+     * - Risques par arête, fixés avant le tirage (KADABRA): confidence / 2 pour les bornes inférieures,
+     * autant pour les bornes supérieures, chaque moitié répartie à parts égales entre les candidates
+     * (cf. candidates) d'une part et les autres arêtes présentes d'autre part. Toutes les bornes tiennent
+     * ensemble avec probabilité au moins 1 - confidence. Les arêtes peu tirées n'ont besoin que d'une
+     * borne supérieure lâche: leur petite part du risque ne coûte presque rien.
+     * - Arrêt si la borne inférieure de l'arête en tête plus tolerance dépasse la borne supérieure de
+     * chaque autre arête (la plus grande est celle de l'arête la plus tirée de chaque groupe): avec
+     * tolerance = epsilon, aucune arête ne la dépasse de plus de epsilon, ce que garantit aussi le
+     * mode fixe.
+     */
+    static boolean isSeparated(CsrGraph g, int[] counts, int samples, boolean[] candidate, double confidence,
+            double tolerance) {
+        int live = 0, candidates = 0, top = -1;
+        for (int e = 0; e < counts.length; e++) {
+            if (g.isRemoved(e)) continue;
+            live++;
+            if (candidate != null && candidate[e]) candidates++;
+            if (top < 0 || counts[e] > counts[top]) top = e;
+        }
+        if (live == 1) return true;
+        if (samples < 1) return false;
+
+        // Most sampled rival in each group
+        int rival = -1, otherRival = -1;
+        for (int e = 0; e < counts.length; e++) {
+            if (g.isRemoved(e) || e == top) continue;
+            if (candidate != null && candidate[e]) {
+                if (rival < 0 || counts[e] > counts[rival]) rival = e;
+            } else if (otherRival < 0 || counts[e] > counts[otherRival]) {
+                otherRival = e;
+            }
+        }
+
+        // Risk of one bound of an edge of each group
+        int others = live - candidates;
+        double groups = candidates > 0 && others > 0 ? 2 : 1;
+        double candidateRisk = confidence / 2 / groups / Math.max(1, candidates);
+        double otherRisk = confidence / 2 / groups / Math.max(1, others);
+
+        boolean topIsCandidate = candidate != null && candidate[top];
+        double lower = lowerBound(counts[top], samples, topIsCandidate ? candidateRisk : otherRisk) + tolerance;
+        if (rival >= 0 && lower <= upperBound(counts[rival], samples, candidateRisk)) return false;
+        return otherRival < 0 || lower > upperBound(counts[otherRival], samples, otherRisk);
+    }
+
+    /**
+     * Borne inférieure de la moyenne b de samples tirages dans [0, 1] de variance au plus b, dont la
+     * somme est count, vraie avec probabilité au moins 1 - risk: Bernstein,
+     * P(count - samples b >= t) <= exp(-t² / (2 (samples b + t / 3))), résolu en b.
+     */
+    static double lowerBound(int count, int samples, double risk) {
+        double log = Math.log(1.0 / risk);
+        return ((double) count - log * (Math.sqrt(4.0 / 9.0 + 2.0 * count / log) - 2.0 / 3.0)) / samples;
+    }
+
+    /**
+     * Borne supérieure de b (cf. lowerBound), vraie avec probabilité au moins 1 - risk.
+     */
+    static double upperBound(int count, int samples, double risk) {
+        double log = Math.log(1.0 / risk);
+        return ((double) count + log * (4.0 / 3.0 + Math.sqrt(16.0 / 9.0 + 2.0 * count / log))) / samples;
+    }
+
+    // Number of samples drawn by the current iteration
+    private void recordSamples(int samples) {
+        if (iterations == samplesPerIteration.length) {
+            samplesPerIteration = Arrays.copyOf(samplesPerIteration, 2 * iterations);
+        }
+        samplesPerIteration[iterations++] = samples;
+    }
+
+    /**
+     * Nombre de chemins tirés à chaque itération du dernier run() (en mode fixe, r à chaque itération).
+     */
+    public int[] getSamplesPerIteration() {
+        return Arrays.copyOf(samplesPerIteration, iterations);
+    }
+
+    /**
+     * SamplingTask
+     * - Un worker: tire les blocs de chemins nextBlock, nextBlock + 1, ... jusqu'à épuisement.
+     * - Pour chaque chemin: composante tirée proportionnellement à son nombre de paires
+     *   (cumulativePairs), puis deux sommets distincts u et v uniformes dans la composante, puis tirage
+     *   d'un plus court chemin de u à v par un BFS bidirectionnel (PathSampler).
+     */
+    static class SamplingTask extends RecursiveAction {
+        private final CsrGraph g;
+        private final ComponentTracker components;
+        private final int[] sampled;
+        private final long[] cumulativePairs;
+        private final int sampledCount;
+        private final SplittableRandom[] streams;
+        private final int r;
+        private final AtomicInteger nextBlock;
+        final int[] counts;
+
+        SamplingTask(CsrGraph g, ComponentTracker components, int[] sampled, long[] cumulativePairs,
+                int sampledCount, SplittableRandom[] streams, int r, AtomicInteger nextBlock) {
+            this.g = g;
+            this.components = components;
+            this.sampled = sampled;
+            this.cumulativePairs = cumulativePairs;
+            this.sampledCount = sampledCount;
+            this.streams = streams;
+            this.r = r;
+            this.nextBlock = nextBlock;
+            this.counts = new int[g.edgeIdCount()];
+        }
+
+        @Override
+        protected void compute() {
+            PathSampler sampler = PathSampler.get(g);
+            int[] path = new int[g.vertexCount()];
+            long allPairs = cumulativePairs[sampledCount - 1];
+            for (int b = nextBlock.getAndIncrement(); b < streams.length; b = nextBlock.getAndIncrement()) {
+                SplittableRandom rng = streams[b];
+                int end = Math.min(r, (b + 1) * SAMPLES_PER_TASK);
+                for (int k = b * SAMPLES_PER_TASK; k < end; k++) {
+                    // Sample a connected component with probability proportional to its number of pairs
+                    long ticket = rng.nextLong(allPairs);
+                    int lo = 0, hi = sampledCount - 1;
+                    while (lo < hi) {
+                        int mid = (lo + hi) >>> 1;
+                        if (cumulativePairs[mid] <= ticket) lo = mid + 1;
+                        else hi = mid;
+                    }
+                    int randomCC = sampled[lo];
+                    int ccSize = components.size(randomCC);
+
+                    int u = components.member(randomCC, rng.nextInt(ccSize));
+                    int v = components.member(randomCC, rng.nextInt(ccSize));
+                    while (u == v) {
+                        v = components.member(randomCC, rng.nextInt(ccSize));
+                    }
+
+                    // Sample random path, then count its edges
+                    int length = sampler.randomShortestPath(g, u, v, rng, path);
+                    for (int i = 0; i < length; i++) {
+                        counts[path[i]]++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Variante sur SimpleGraph: betweenness estimée des arêtes rencontrées, indexée par Edge.
+     */
+    public Map<Edge, Double> sampledEdgeBetweenness(SimpleGraph input) {
+        CsrGraph g = CsrGraph.of(input);
+        double[] eb = sampledEdgeBetweenness(g);
+        Map<Edge, Double> bc = new HashMap<>();
+        for (int e = 0; e < eb.length; e++) {
+            if (eb[e] != 0.0) bc.put(g.edge(e), eb[e]);
+        }
+        return bc;
+    }
+
+    public int computeSampleSize() {
+        return computeSampleSize(vertexDiameter);
+    }
+
+    /**
+     * Taille d'échantillon pour un diamètre (en sommets) donné:
+     * r = c / epsilon² * (floor(log2(VD - 2)) + 1 + ln(1 / delta)).
+     */
+    public int computeSampleSize(int vertexDiameter) {
+        return sampleSize(vertexDiameter, delta);
+    }
+
+    // Sample size for a vertex diameter and a failure probability delta
+    private int sampleSize(int vertexDiameter, double delta) {
+        if (vertexDiameter <= 2) {
+            throw new IllegalArgumentException("vertexDiameter must be greater than 2");
+        }
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("epsilon must be in (0,1)");
+        }
+        if (delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("delta must be in (0,1)");
+        }
+
+        int d = (int) (Math.log(vertexDiameter - 2) / Math.log(2)) + 1;
+        double lnInvDelta = Math.log(1.0 / delta);
+        double r = c / (epsilon * epsilon) * (d + lnInvDelta);
+        return (int) Math.ceil(r);
+    }
+
+    /**
+     * Tire un plus court chemin aléatoire de source à target, renvoie les ids des arêtes (de target vers source).
+     * Chaque plus court chemin a la même probabilité (BFS bidirectionnel, cf. PathSampler).
+     */
+    public int[] computeRandomShortestPath(CsrGraph g, int source, int target) {
+        int[] randomShortestPath = new int[g.vertexCount()];
+        int length = PathSampler.get(g).randomShortestPath(g, source, target, random().split(), randomShortestPath);
+        return Arrays.copyOf(randomShortestPath, length);
+    }
+
+    public List<Edge> computeRandomShortestPath(SimpleGraph input, Vertex source, Vertex target) {
+        CsrGraph g = CsrGraph.of(input);
+        List<Edge> randomShortestPath = new ArrayList<>();
+        for (int e : computeRandomShortestPath(g, source.id(), target.id())) {
+            randomShortestPath.add(g.edge(e));
+        }
+        return randomShortestPath;
+    }
+}
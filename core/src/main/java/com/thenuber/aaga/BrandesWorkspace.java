@@ -0,0 +1,143 @@
+package com.thenuber.aaga;
+
+import java.util.Arrays;
+
+/**
+ * BrandesWorkspace
+ *  - Tableaux de travail d'une source de Brandes, réutilisés d'une source à l'autre et d'une itération à l'autre.
+ *  - Un workspace par thread (get(g)), redimensionné seulement si le graphe grandit.
+ *  - Pas de remise à zéro en O(V) par source: un sommet n'est valide que si stamp[v] == currentStamp,
+ *    et sigma/delta/predCount sont initialisés au moment où le sommet est découvert.
+ *  - Les prédécesseurs de w sont rangés dans pred[firstSlot(w) ..] (au plus degree(w) entrées),
+ *    sous forme d'ids d'arêtes: l'accumulation écrit directement dans un tableau indexé par id d'arête.
+ *
+ * Utilisation: bfs(g, s) puis accumulate(g, acc); visitedCount()/visited(k) donnent les sommets atteints.
+ */
+public class BrandesWorkspace {
+    private static final ThreadLocal<BrandesWorkspace> WORKSPACES = ThreadLocal.withInitial(BrandesWorkspace::new);
+
+    private int[] order = new int[0]; // ordre de visite (file puis pile pour l'accumulation)
+    private int[] stamp = new int[0]; // stamp[v] == currentStamp si v a été atteint depuis la source courante
+    private int[] distances = new int[0]; // distances depuis s
+    private long[] sigma = new long[0]; // nb. de plus courts chemins de s vers v
+    private double[] delta = new double[0]; // dépendances de s envers v
+    private int[] predCount = new int[0]; // nb. de prédécesseurs de w
+    private int[] pred = new int[0]; // arêtes (v,w) vers les prédécesseurs v de w, rangées dans la zone de w
+    private int currentStamp = 0;
+    private int visited = 0;
+
+    /**
+     * Workspace du thread courant, dimensionné pour g.
+     */
+    public static BrandesWorkspace get(CsrGraph g) {
+        BrandesWorkspace ws = WORKSPACES.get();
+        ws.ensureCapacity(g.vertexCount(), 2 * g.edgeIdCount());
+        return ws;
+    }
+
+    private void ensureCapacity(int n, int slots) {
+        if (order.length < n) {
+            order = new int[n];
+            stamp = new int[n];
+            distances = new int[n];
+            sigma = new long[n];
+            delta = new double[n];
+            predCount = new int[n];
+            currentStamp = 0;
+        }
+        if (pred.length < slots) {
+            pred = new int[slots];
+        }
+    }
+
+    /**
+     * Phase BFS (plus courts chemins depuis s).
+     */
+    public void bfs(CsrGraph g, int s) {
+        if (++currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            currentStamp = 1;
+        }
+        int mark = currentStamp;
+
+        stamp[s] = mark;
+        distances[s] = 0;
+        sigma[s] = 1;
+        delta[s] = 0.0;
+        predCount[s] = 0;
+        int head = 0, tail = 0;
+        order[tail++] = s;
+        while (head < tail) {
+            int v = order[head++];
+            int dv = distances[v] + 1;
+            for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                int e = g.edgeAt(j);
+                if (g.isRemoved(e)) continue;
+                int w = g.target(j);
+                // Découverte de w
+                if (stamp[w] != mark) {
+                    stamp[w] = mark;
+                    distances[w] = dv;
+                    sigma[w] = 0;
+                    delta[w] = 0.0;
+                    predCount[w] = 0;
+                    order[tail++] = w;
+                }
+                // V est un prédécesseur valide de w si w est à une distance +1
+                if (distances[w] == dv) {
+                    sigma[w] += sigma[v];
+                    pred[g.firstSlot(w) + predCount[w]++] = e;
+                }
+            }
+        }
+        visited = tail;
+    }
+
+    /**
+     * Phase d'accumulation: contributions en remontant depuis les plus éloignés,
+     * ajoutées (non divisées par 2) dans edge_betweenness indexé par id d'arête.
+     */
+    public void accumulate(CsrGraph g, double[] edge_betweenness) {
+        for (int k = visited - 1; k >= 0; k--) {
+            int w = order[k];
+            if (sigma[w] == 0) continue;
+            double dw = delta[w];
+            for (int p = g.firstSlot(w), end = p + predCount[w]; p < end; p++) {
+                int e = pred[p];
+                int v = g.edgeSource(e) == w ? g.edgeTarget(e) : g.edgeSource(e);
+                double sv_sw = (double) sigma[v] / (double) sigma[w];
+                delta[v] += sv_sw * (1.0 + dw);
+                edge_betweenness[e] += sv_sw * dw;
+            }
+        }
+    }
+
+    /**
+     * Même accumulation, dans acc[localIndex[e]] (accumulateur restreint à un sous-ensemble d'arêtes
+     * contenant toutes celles atteintes depuis la source).
+     */
+    public void accumulate(CsrGraph g, double[] acc, int[] localIndex) {
+        for (int k = visited - 1; k >= 0; k--) {
+            int w = order[k];
+            if (sigma[w] == 0) continue;
+            double dw = delta[w];
+            for (int p = g.firstSlot(w), end = p + predCount[w]; p < end; p++) {
+                int e = pred[p];
+                int v = g.edgeSource(e) == w ? g.edgeTarget(e) : g.edgeSource(e);
+                double sv_sw = (double) sigma[v] / (double) sigma[w];
+                delta[v] += sv_sw * (1.0 + dw);
+                acc[localIndex[e]] += sv_sw * dw;
+            }
+        }
+    }
+
+    /**
+     * Nombre de sommets atteints par le dernier bfs.
+     */
+    public int visitedCount() { return visited; }
+
+    /**
+     * k-ième sommet atteint par le dernier bfs (ordre BFS).
+     */
+    public int visited(int k) { return order[k]; }
+}
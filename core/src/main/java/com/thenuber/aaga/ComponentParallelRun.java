@@ -0,0 +1,316 @@
+package com.thenuber.aaga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ComponentParallelRun
+ *  - Exécution de Girvan–Newman composante par composante (GirvanNewman.setComponentParallel).
+ *  - Un plus court chemin ne sort jamais de sa composante: la suite des suppressions d'une composante
+ *    ne dépend pas des autres. Chaque composante connexe est donc une tâche du ForkJoinPool, sur son
+ *    propre sous-graphe (ids locaux dans l'ordre des ids globaux): elle supprime ses arêtes de
+ *    betweenness maximale jusqu'à se scinder, puis lance une tâche par nouvelle composante. Les
+ *    grandes composantes gardent en plus le parallélisme par sources de la betweenness.
+ *  - La betweenness d'une composante utilise le même arbre de réduction que
+ *    GirvanNewman.edgeBetweenness, élagué des sous-arbres sans source (cf. SourceRangeTask): les
+ *    valeurs sont identiques au bit près à celles du calcul complet.
+ *  - Fusion: les suites des composantes sont rejouées sur le graphe global, à chaque étape par
+ *    valeur maximale décroissante (les composantes ex-aequo suppriment ensemble, arêtes par id
+ *    croissant). Le Dendrogram est donc exactement celui de GirvanNewman.run.
+ *  - La décomposition est calculée en entier avant la fusion: GirvanNewman n'y passe donc pas avec des
+ *    critères d'arrêt (la boucle séquentielle s'arrête dès qu'ils sont atteints). stop est tout de
+ *    même appliqué pendant la fusion.
+ */
+public class ComponentParallelRun {
+
+    private final ForkJoinPool pool;
+
+    public ComponentParallelRun(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Décompose le graphe de components en parallèle, puis rejoue les suppressions sur components
+     * (scissions écrites dans partitions, arrêt selon stop). Renvoie le Dendrogram de partitions.
+     */
+    public Dendrogram run(ComponentTracker components, Dendrogram.Builder partitions, StopCriteria.Monitor stop,
+            RunTrace trace) {
+        CsrGraph g = components.graph();
+        int n = g.vertexCount();
+        trace.beginIteration();
+
+        // One task per connected component with edges, on a subgraph of the input
+        int[] identity = new int[Math.max(n, g.edgeIdCount())];
+        for (int k = 0; k < identity.length; k++) identity[k] = k;
+        int[] index = new int[n];
+        List<ComponentTask> roots = new ArrayList<>();
+        for (int c = 0; c < components.componentCount(); c++) {
+            if (components.edgeCount(c) == 0) continue;
+            int[] members = new int[components.size(c)];
+            for (int k = 0; k < members.length; k++) members[k] = components.member(c, k);
+            Arrays.sort(members);
+            roots.add(ComponentTask.of(g, n, identity, identity, members, members.length, index));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(roots);
+            }
+        });
+        trace.endPhase(RunTrace.BETWEENNESS);
+
+        // Replay: every step removes the edges of the parts whose next value is the maximum
+        PriorityQueue<Part> heads = new PriorityQueue<>((a, b) -> Double.compare(b.value(), a.value()));
+        for (ComponentTask root : roots) heads.add(root.part);
+        List<Part> tied = new ArrayList<>();
+        int[] toRemove = new int[16];
+        boolean first = true;
+        while (!heads.isEmpty()) {
+            if (!first) trace.beginIteration();
+            first = false;
+
+            double max = heads.peek().value();
+            int count = 0;
+            tied.clear();
+            while (!heads.isEmpty() && Double.compare(heads.peek().value(), max) == 0) {
+                Part part = heads.poll();
+                for (int k = part.stepStart(); k < part.stepEnd(); k++) {
+                    if (count == toRemove.length) toRemove = Arrays.copyOf(toRemove, 2 * count);
+                    toRemove[count++] = part.edges[k];
+                }
+                tied.add(part);
+            }
+            Arrays.sort(toRemove, 0, count);
+            for (Part part : tied) {
+                if (++part.step < part.steps) {
+                    heads.add(part);
+                } else {
+                    heads.addAll(part.children);
+                }
+            }
+            trace.endPhase(RunTrace.MAX_SCAN);
+
+            for (int k = 0; k < count; k++) {
+                int child = components.removeEdge(toRemove[k]);
+                trace.endPhase(RunTrace.REMOVAL);
+                if (child >= 0) {
+                    partitions.split(components.lastParent(), child, components.lastMembers(), 0, components.lastSize());
+                    stop.split(components.lastParent(), child, components.lastMembers(), 0, components.lastSize());
+                }
+                trace.endPhase(RunTrace.PARTITION);
+            }
+
+            partitions.endStep();
+            trace.endPhase(RunTrace.PARTITION);
+            trace.endIteration(count, components.componentCount(), 0);
+
+            if (stop.endStep(partitions.communityCount())) break;
+        }
+        return partitions.build();
+    }
+
+    /**
+     * Part
+     *  - Suppressions d'une composante entre sa création et sa scission (ou la suppression de sa
+     *    dernière arête): pour chaque étape, la betweenness maximale et les ids globaux des arêtes
+     *    supprimées; children: parts des composantes issues de la scission.
+     */
+    static final class Part {
+        private double[] values = new double[4];
+        private int[] ends = new int[4];
+        private int[] edges = new int[4];
+        private int steps = 0;
+        private int edgeCount = 0;
+        private final List<Part> children = new ArrayList<>();
+
+        // Replay cursor
+        private int step = 0;
+
+        double value() { return values[step]; }
+
+        int stepStart() { return step == 0 ? 0 : ends[step - 1]; }
+
+        int stepEnd() { return ends[step]; }
+
+        void addEdge(int e) {
+            if (edgeCount == edges.length) edges = Arrays.copyOf(edges, 2 * edgeCount);
+            edges[edgeCount++] = e;
+        }
+
+        void endStep(double value) {
+            if (steps == values.length) {
+                values = Arrays.copyOf(values, 2 * steps);
+                ends = Arrays.copyOf(ends, 2 * steps);
+            }
+            values[steps] = value;
+            ends[steps++] = edgeCount;
+        }
+    }
+
+    /**
+     * ComponentTask
+     *  - Girvan–Newman sur le sous-graphe local d'une composante, jusqu'à sa scission, puis une tâche
+     *    par composante issue de la scission (celles qui ont encore des arêtes).
+     *  - vertexIds / edgeIds: ids globaux des sommets et arêtes du sous-graphe (croissants).
+     */
+    static final class ComponentTask extends RecursiveAction {
+        private final int globalCount;
+        private final CsrGraph local;
+        private final int[] vertexIds;
+        private final int[] edgeIds;
+        final Part part = new Part();
+
+        private ComponentTask(int globalCount, CsrGraph local, int[] vertexIds, int[] edgeIds) {
+            this.globalCount = globalCount;
+            this.local = local;
+            this.vertexIds = vertexIds;
+            this.edgeIds = edgeIds;
+        }
+
+        /**
+         * Tâche de la composante formée par members[0..count) (ids de parent, croissants), avec ses
+         * arêtes présentes. index: tableau de travail de taille parent.vertexCount().
+         */
+        static ComponentTask of(CsrGraph parent, int globalCount, int[] parentVertexIds,
+                int[] parentEdgeIds, int[] members, int count, int[] index) {
+            for (int k = 0; k < count; k++) index[members[k]] = k;
+            int[] offsets = new int[count + 1];
+            for (int k = 0; k < count; k++) offsets[k + 1] = offsets[k] + parent.degree(members[k]);
+            int[] targets = new int[offsets[count]];
+            int[] edgeIds = new int[targets.length / 2];
+            int[] vertexIds = new int[count];
+            Vertex[] vertices = new Vertex[count];
+            int slot = 0;
+            int nextEdge = 0;
+            for (int k = 0; k < count; k++) {
+                int u = members[k];
+                vertexIds[k] = parentVertexIds[u];
+                vertices[k] = parent.vertex(u);
+                for (int j = parent.firstSlot(u), end = parent.endSlot(u); j < end; j++) {
+                    int e = parent.edgeAt(j);
+                    if (parent.isRemoved(e)) continue;
+                    int w = index[parent.target(j)];
+                    targets[slot++] = w;
+                    // Same numbering as the CsrGraph constructor: the slot (u,w) with u < w creates the id
+                    if (w > k) edgeIds[nextEdge++] = parentEdgeIds[e];
+                }
+            }
+            return new ComponentTask(globalCount, new CsrGraph(vertices, offsets, targets), vertexIds, edgeIds);
+        }
+
+        @Override
+        protected void compute() {
+            ComponentTracker tracker = new ComponentTracker(local);
+            int[] removed = new int[16];
+            while (local.edgeCount() > 0) {
+                double[] eb = edgeBetweenness();
+
+                // Edges of maximum betweenness, as in GirvanNewman.maxEdges
+                double max = 0.0;
+                for (int e = 0; e < eb.length; e++) {
+                    if (!local.isRemoved(e) && eb[e] > max) max = eb[e];
+                }
+                int count = 0;
+                for (int e = 0; e < eb.length; e++) {
+                    if (!local.isRemoved(e) && Double.compare(eb[e], max) == 0) {
+                        if (count == removed.length) removed = Arrays.copyOf(removed, 2 * count);
+                        removed[count++] = e;
+                        part.addEdge(edgeIds[e]);
+                    }
+                }
+                part.endStep(max);
+                for (int k = 0; k < count; k++) tracker.removeEdge(removed[k]);
+
+                if (tracker.componentCount() > 1) {
+                    split(tracker);
+                    return;
+                }
+            }
+        }
+
+        private void split(ComponentTracker tracker) {
+            List<ComponentTask> tasks = new ArrayList<>();
+            int[] index = new int[local.vertexCount()];
+            for (int c = 0; c < tracker.componentCount(); c++) {
+                if (tracker.edgeCount(c) == 0) continue;
+                int[] members = new int[tracker.size(c)];
+                for (int k = 0; k < members.length; k++) members[k] = tracker.member(c, k);
+                Arrays.sort(members);
+                ComponentTask task = of(local, globalCount, vertexIds, edgeIds, members, members.length, index);
+                tasks.add(task);
+                part.children.add(task.part);
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+
+        // Betweenness of the local edges, on the reduction tree of the whole graph
+        private double[] edgeBetweenness() {
+            double[] acc = new SourceTask(local, 0, globalCount, vertexIds, 0, vertexIds.length).invoke();
+            for (int e = 0; e < acc.length; e++) {
+                acc[e] /= 2.0;
+            }
+            return acc;
+        }
+    }
+
+    /**
+     * SourceTask
+     *  - GirvanNewman.SourceRangeTask restreinte aux sources scope[from..to) (ids globaux croissants),
+     *    mais sur le sous-graphe local où la source scope[k] a l'id k: même découpage de [lo, hi),
+     *    mêmes feuilles, même ordre de réduction.
+     */
+    static final class SourceTask extends RecursiveTask<double[]> {
+        private final CsrGraph local;
+        private final int lo;
+        private final int hi;
+        private final int[] scope;
+        private final int from;
+        private final int to;
+
+        SourceTask(CsrGraph local, int lo, int hi, int[] scope, int from, int to) {
+            this.local = local;
+            this.lo = lo;
+            this.hi = hi;
+            this.scope = scope;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (from == to) {
+                return null;
+            }
+
+            if (hi - lo <= GirvanNewman.SOURCES_PER_TASK) {
+                double[] acc = new double[local.edgeIdCount()];
+                BrandesWorkspace ws = BrandesWorkspace.get(local);
+                for (int k = from; k < to; k++) {
+                    ws.bfs(local, k);
+                    ws.accumulate(local, acc);
+                }
+                return acc;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            int split = GirvanNewman.SourceRangeTask.lowerBound(scope, from, to, mid);
+            SourceTask left = new SourceTask(local, lo, mid, scope, from, split);
+            SourceTask right = new SourceTask(local, mid, hi, scope, split, to);
+            left.fork();
+            double[] r = right.compute();
+            double[] l = left.join();
+            if (l == null) return r;
+            if (r == null) return l;
+            for (int e = 0; e < l.length; e++) {
+                l[e] += r[e];
+            }
+            return l;
+        }
+    }
+}
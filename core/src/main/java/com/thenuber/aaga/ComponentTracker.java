@@ -0,0 +1,211 @@
+package com.thenuber.aaga;
+
+import java.util.Arrays;
+
+/**
+ * ComponentTracker
+ *  - Composantes connexes d'un CsrGraph maintenues au fil des suppressions d'arêtes, sans BFS global.
+ *  - removeEdge(e) supprime l'arête {u,v} puis lance deux BFS simultanés depuis u et depuis v
+ *    (on avance toujours le côté qui a le moins travaillé):
+ *      * si un côté atteint un sommet de l'autre, u et v restent connectés: rien ne change;
+ *      * si un côté s'épuise, il forme une nouvelle composante (le côté épuisé est le plus petit).
+ *    Coût O(vol du plus petit côté) au lieu de O(n + m).
+ *  - Les ids sont stables: une composante garde son id quand elle se scinde, la partie détachée
+ *    reçoit l'id suivant (0..k-1 au départ, puis k, k+1, ...).
+ *  - Les sommets d'une composante c sont contigus dans un tableau de permutation:
+ *    member(c, 0..size(c)-1), ce qui permet de les parcourir ou d'en tirer un au hasard en O(1).
+ *  - edgeCount(c) donne le nombre d'arêtes présentes de c (c est un arbre si edgeCount(c) == size(c) - 1).
+ */
+public class ComponentTracker {
+    private final CsrGraph g;
+    private final int[] component;
+    private final int[] perm; // sommets rangés par composante
+    private final int[] pos; // position de chaque sommet dans perm
+    private int[] start;
+    private int[] size;
+    private int[] edges;
+    private int count;
+
+    // Deux BFS simultanés: visit[x] == stamp (côté u) ou stamp + 1 (côté v)
+    private final int[] visit;
+    private final int[] queueU;
+    private final int[] queueV;
+    private int stamp = 0;
+
+    // Dernière scission
+    private int lastParent = -1;
+    private int[] lastMembers;
+    private int lastSize = 0;
+
+    /**
+     * Composantes initiales de g (g est ensuite modifié via removeEdge).
+     */
+    public ComponentTracker(CsrGraph g) {
+        this.g = g;
+        int n = g.vertexCount();
+        this.component = g.connectedComponents();
+        this.perm = new int[n];
+        this.pos = new int[n];
+        this.visit = new int[n];
+        this.queueU = new int[n];
+        this.queueV = new int[n];
+
+        for (int c : component) count = Math.max(count, c + 1);
+        this.start = new int[Math.max(count, 1) * 2];
+        this.size = new int[start.length];
+        this.edges = new int[start.length];
+        for (int c : component) size[c]++;
+        for (int v = 0; v < n; v++) edges[component[v]] += g.degree(v);
+        for (int c = 0; c < count; c++) edges[c] /= 2;
+        for (int c = 1; c < count; c++) start[c] = start[c - 1] + size[c - 1];
+        int[] cursor = Arrays.copyOf(start, count);
+        for (int v = 0; v < n; v++) {
+            int p = cursor[component[v]]++;
+            perm[p] = v;
+            pos[v] = p;
+        }
+    }
+
+    /**
+     * Graphe suivi.
+     */
+    public CsrGraph graph() { return g; }
+
+    /**
+     * Composante de v.
+     */
+    public int component(int v) { return component[v]; }
+
+    /**
+     * Etiquettes courantes (tableau interne, ne pas modifier).
+     */
+    public int[] labels() { return component; }
+
+    /**
+     * Nombre de composantes (ids 0..componentCount()-1).
+     */
+    public int componentCount() { return count; }
+
+    /**
+     * Nombre de sommets de la composante c.
+     */
+    public int size(int c) { return size[c]; }
+
+    /**
+     * Nombre d'arêtes présentes de la composante c.
+     */
+    public int edgeCount(int c) { return edges[c]; }
+
+    /**
+     * k-ième sommet de la composante c (0 <= k < size(c)).
+     */
+    public int member(int c, int k) { return perm[start[c] + k]; }
+
+    /**
+     * Supprime l'arête e du graphe et met à jour les composantes.
+     * Renvoie l'id de la nouvelle composante si la suppression a scindé une composante, -1 sinon.
+     */
+    public int removeEdge(int e) {
+        if (g.isRemoved(e)) return -1;
+        g.removeEdge(e);
+        lastParent = -1;
+        lastSize = 0;
+
+        int u = g.edgeSource(e);
+        int v = g.edgeTarget(e);
+        edges[component[u]]--;
+        if (stamp >= Integer.MAX_VALUE - 2) {
+            Arrays.fill(visit, 0);
+            stamp = 0;
+        }
+        stamp += 2;
+        int markU = stamp, markV = stamp + 1;
+
+        visit[u] = markU;
+        visit[v] = markV;
+        queueU[0] = u;
+        queueV[0] = v;
+        int headU = 0, tailU = 1, headV = 0, tailV = 1;
+        long workU = 0, workV = 0;
+
+        while (headU < tailU && headV < tailV) {
+            boolean sideU = workU <= workV;
+            int[] queue = sideU ? queueU : queueV;
+            int mark = sideU ? markU : markV;
+            int other = sideU ? markV : markU;
+            int x = sideU ? queueU[headU++] : queueV[headV++];
+            int tail = sideU ? tailU : tailV;
+
+            for (int j = g.firstSlot(x), end = g.endSlot(x); j < end; j++) {
+                if (g.isRemoved(g.edgeAt(j))) continue;
+                int y = g.target(j);
+                if (visit[y] == other) return -1; // both sides meet: still connected
+                if (visit[y] != mark) {
+                    visit[y] = mark;
+                    queue[tail++] = y;
+                }
+            }
+            if (sideU) {
+                tailU = tail;
+                workU += g.endSlot(x) - g.firstSlot(x);
+            } else {
+                tailV = tail;
+                workV += g.endSlot(x) - g.firstSlot(x);
+            }
+        }
+
+        // One side is exhausted: it becomes a new component
+        boolean splitU = headU == tailU;
+        int[] moved = splitU ? queueU : queueV;
+        int movedCount = splitU ? tailU : tailV;
+        return split(component[u], moved, movedCount);
+    }
+
+    /**
+     * Composante scindée par le dernier removeEdge (-1 si aucune scission).
+     */
+    public int lastParent() { return lastParent; }
+
+    /**
+     * Sommets détachés par la dernière scission: lastMembers()[0..lastSize()) (tableau interne,
+     * valable jusqu'au prochain removeEdge).
+     */
+    public int[] lastMembers() { return lastMembers; }
+
+    public int lastSize() { return lastSize; }
+
+    private int split(int parent, int[] moved, int movedCount) {
+        int child = count++;
+        if (child == start.length) {
+            start = Arrays.copyOf(start, 2 * start.length);
+            size = Arrays.copyOf(size, 2 * size.length);
+            edges = Arrays.copyOf(edges, 2 * edges.length);
+        }
+
+        // Move the detached vertices to the end of the parent's segment, which becomes the child's segment
+        int end = start[parent] + size[parent];
+        int movedDegree = 0;
+        for (int k = 0; k < movedCount; k++) {
+            int x = moved[k];
+            movedDegree += g.degree(x);
+            int last = --end;
+            int y = perm[last];
+            int px = pos[x];
+            perm[px] = y;
+            pos[y] = px;
+            perm[last] = x;
+            pos[x] = last;
+            component[x] = child;
+        }
+        start[child] = end;
+        size[child] = movedCount;
+        size[parent] -= movedCount;
+        edges[child] = movedDegree / 2;
+        edges[parent] -= edges[child];
+
+        lastParent = parent;
+        lastMembers = moved;
+        lastSize = movedCount;
+        return child;
+    }
+}
@@ -0,0 +1,346 @@
+package com.thenuber.aaga;
+
+import java.util.*;
+
+/**
+ * CsrGraph
+ *  - Graphe simple, non orienté, stocké au format CSR (Compressed Sparse Row) sur des tableaux d'entiers.
+ *  - Les sommets sont les entiers 0..n-1 (l'entier i correspond au Vertex d'id i).
+ *  - Représentation:
+ *      * offsets[v] .. offsets[v+1]-1 : "slots" d'adjacence du sommet v.
+ *      * targets[slot]                 : voisin stocké dans ce slot (trié par sommet).
+ *      * slotEdge[slot]                : id de l'arête non orientée portée par ce slot.
+ *      * edgeU[e] < edgeV[e]           : extrémités de l'arête d'id e (ids stables de 0 à m-1).
+ *  - La topologie est immuable: supprimer une arête ne fait que marquer son id dans un bitset.
+ *    Une copie ne duplique que ce bitset et les degrés courants, les tableaux CSR sont partagés.
+ *
+ * Parcours des voisins (ignorer les arêtes supprimées):
+ * <pre>
+ *   for (int j = g.firstSlot(v), end = g.endSlot(v); j &lt; end; j++) {
+ *       int e = g.edgeAt(j);
+ *       if (g.isRemoved(e)) continue;
+ *       int w = g.target(j);
+ *       ...
+ *   }
+ * </pre>
+ */
+public class CsrGraph {
+    private final Vertex[] vertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] slotEdge;
+    private final int[] edgeU;
+    private final int[] edgeV;
+
+    // Etat mutable: arêtes supprimées et degrés courants
+    private final BitSet removed;
+    private final int[] degree;
+    private int edgeCount;
+
+    /**
+     * Construit le graphe à partir de tableaux CSR déjà triés.
+     * - offsets: taille n+1, targets: taille 2m, chaque arête {u,v} présente dans les deux listes.
+     * - Les listes d'adjacence doivent être triées par ordre croissant, sans doublons ni boucles.
+     */
+    public CsrGraph(Vertex[] vertices, int[] offsets, int[] targets) {
+        int n = vertices.length;
+        if (offsets.length != n + 1 || offsets[n] != targets.length || targets.length % 2 != 0) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        }
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.slotEdge = new int[targets.length];
+
+        int m = targets.length / 2;
+        this.edgeU = new int[m];
+        this.edgeV = new int[m];
+
+        // Edge ids: the slot (u,v) with u < v creates the id, the mirror slot (v,u) receives it.
+        // Since u grows and adjacency lists are sorted, the mirror slots of v are filled in order.
+        int[] cursor = Arrays.copyOf(offsets, n);
+        int next = 0;
+        for (int u = 0; u < n; u++) {
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int v = targets[j];
+                if (v <= u) continue;
+                int mirror = cursor[v]++;
+                if (mirror >= offsets[v + 1] || targets[mirror] != u) {
+                    throw new IllegalArgumentException("Adjacency lists are not symmetric and sorted");
+                }
+                slotEdge[j] = next;
+                slotEdge[mirror] = next;
+                edgeU[next] = u;
+                edgeV[next] = v;
+                next++;
+            }
+        }
+
+        this.removed = new BitSet(m);
+        this.degree = new int[n];
+        for (int v = 0; v < n; v++) {
+            degree[v] = offsets[v + 1] - offsets[v];
+        }
+        this.edgeCount = m;
+    }
+
+    /**
+     * Copie du graphe g: la topologie est partagée, seules les suppressions sont copiées.
+     */
+    public CsrGraph(CsrGraph g) {
+        this.vertices = g.vertices;
+        this.offsets = g.offsets;
+        this.targets = g.targets;
+        this.slotEdge = g.slotEdge;
+        this.edgeU = g.edgeU;
+        this.edgeV = g.edgeV;
+        this.removed = (BitSet) g.removed.clone();
+        this.degree = g.degree.clone();
+        this.edgeCount = g.edgeCount;
+    }
+
+    /**
+     * Convertit un SimpleGraph en CsrGraph (l'id d'un Vertex devient son indice).
+     */
+    public static CsrGraph of(SimpleGraph g) {
+        int n = g.vertexCount();
+        Vertex[] vertices = new Vertex[n];
+        for (Vertex v : g.vertices()) {
+            vertices[v.id()] = v;
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + g.degree(vertices[v]);
+        }
+        int[] targets = new int[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            int j = offsets[v];
+            for (Vertex w : g.neighbors(vertices[v])) {
+                targets[j++] = w.id();
+            }
+            Arrays.sort(targets, offsets[v], offsets[v + 1]);
+        }
+        return new CsrGraph(vertices, offsets, targets);
+    }
+
+    /**
+     * Construit le graphe à partir d'une liste d'arêtes {u[k], v[k]}, k < count, sur les sommets
+     * vertices (indices 0..n-1), sans passer par un SimpleGraph.
+     * - Les boucles sont ignorées, les arêtes en double ne sont gardées qu'une fois.
+     * - Coût O(n + m log(degré max)): comptage des degrés, remplissage, puis tri et dédoublonnage de
+     *   chaque liste d'adjacence.
+     */
+    public static CsrGraph of(Vertex[] vertices, int[] u, int[] v, int count) {
+        int n = vertices.length;
+        int[] offsets = new int[n + 1];
+        for (int k = 0; k < count; k++) {
+            if (u[k] == v[k]) continue;
+            offsets[u[k] + 1]++;
+            offsets[v[k] + 1]++;
+        }
+        for (int x = 0; x < n; x++) offsets[x + 1] += offsets[x];
+
+        int[] cursor = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        for (int k = 0; k < count; k++) {
+            if (u[k] == v[k]) continue;
+            targets[cursor[u[k]]++] = v[k];
+            targets[cursor[v[k]]++] = u[k];
+        }
+
+        // Sort each list and drop duplicates, compacting the lists in place
+        int next = 0;
+        for (int x = 0; x < n; x++) {
+            int from = offsets[x], to = offsets[x + 1];
+            Arrays.sort(targets, from, to);
+            offsets[x] = next;
+            for (int j = from; j < to; j++) {
+                if (j == from || targets[j] != targets[j - 1]) targets[next++] = targets[j];
+            }
+        }
+        offsets[n] = next;
+        return new CsrGraph(vertices, offsets, next == targets.length ? targets : Arrays.copyOf(targets, next));
+    }
+
+    /**
+     * Nombre de sommets.
+     */
+    public int vertexCount() { return vertices.length; }
+
+    /**
+     * Nombre d'arêtes encore présentes.
+     */
+    public int edgeCount() { return edgeCount; }
+
+    /**
+     * Nombre d'ids d'arêtes (arêtes supprimées comprises): les ids sont dans [0, edgeIdCount()).
+     */
+    public int edgeIdCount() { return edgeU.length; }
+
+    /**
+     * Sommet correspondant à l'indice v.
+     */
+    public Vertex vertex(int v) { return vertices[v]; }
+
+    /**
+     * Liste non modifiable des sommets, dans l'ordre des indices.
+     */
+    public List<Vertex> vertices() { return Collections.unmodifiableList(Arrays.asList(vertices)); }
+
+    /**
+     * Degré courant de v (arêtes supprimées exclues).
+     */
+    public int degree(int v) { return degree[v]; }
+
+    /**
+     * Premier slot d'adjacence de v.
+     */
+    public int firstSlot(int v) { return offsets[v]; }
+
+    /**
+     * Slot suivant le dernier slot d'adjacence de v.
+     */
+    public int endSlot(int v) { return offsets[v + 1]; }
+
+    /**
+     * Voisin stocké dans ce slot.
+     */
+    public int target(int slot) { return targets[slot]; }
+
+    /**
+     * Id de l'arête stockée dans ce slot.
+     */
+    public int edgeAt(int slot) { return slotEdge[slot]; }
+
+    /**
+     * Plus petite extrémité de l'arête e.
+     */
+    public int edgeSource(int e) { return edgeU[e]; }
+
+    /**
+     * Plus grande extrémité de l'arête e.
+     */
+    public int edgeTarget(int e) { return edgeV[e]; }
+
+    /**
+     * Arête e sous forme d'objet Edge.
+     */
+    public Edge edge(int e) { return new Edge(vertices[edgeU[e]], vertices[edgeV[e]]); }
+
+    /**
+     * Vrai si l'arête e a été supprimée.
+     */
+    public boolean isRemoved(int e) { return removed.get(e); }
+
+    /**
+     * Id de l'arête {u,v} (recherche dichotomique, supprimée ou non), -1 si elle n'existe pas.
+     */
+    public int edgeId(int u, int v) {
+        int j = Arrays.binarySearch(targets, offsets[u], offsets[u + 1], v);
+        return j < 0 ? -1 : slotEdge[j];
+    }
+
+    /**
+     * Teste la présence de l'arête {u,v} (non supprimée).
+     */
+    public boolean containsEdge(int u, int v) {
+        int e = edgeId(u, v);
+        return e >= 0 && !removed.get(e);
+    }
+
+    /**
+     * Supprime l'arête e si elle est présente (simple marquage, la topologie ne change pas).
+     */
+    public void removeEdge(int e) {
+        if (!removed.get(e)) {
+            removed.set(e);
+            degree[edgeU[e]]--;
+            degree[edgeV[e]]--;
+            edgeCount--;
+        }
+    }
+
+    /**
+     * Distances BFS depuis source (-1 pour les sommets inaccessibles).
+     */
+    public int[] distances(int source) {
+        int[] dist = new int[vertices.length];
+        Arrays.fill(dist, -1);
+        int[] queue = new int[vertices.length];
+        int head = 0, tail = 0;
+        dist[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int j = offsets[v], end = offsets[v + 1]; j < end; j++) {
+                if (removed.get(slotEdge[j])) continue;
+                int w = targets[j];
+                if (dist[w] < 0) {
+                    dist[w] = dist[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Etiquette de composante connexe de chaque sommet (0, 1, ... dans l'ordre des sommets).
+     */
+    public int[] connectedComponents() {
+        int n = vertices.length;
+        int[] component = new int[n];
+        Arrays.fill(component, -1);
+        int[] queue = new int[n];
+
+        int componentId = 0;
+        for (int u = 0; u < n; u++) {
+            if (component[u] >= 0) continue;
+
+            int head = 0, tail = 0;
+            queue[tail++] = u;
+            component[u] = componentId;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int j = offsets[v], end = offsets[v + 1]; j < end; j++) {
+                    if (removed.get(slotEdge[j])) continue;
+                    int w = targets[j];
+                    if (component[w] < 0) {
+                        component[w] = componentId;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            componentId++;
+        }
+        return component;
+    }
+
+    /**
+     * Convertit des étiquettes par indice de sommet en partition Vertex -> communauté.
+     */
+    public Map<Vertex, Integer> toPartition(int[] labels) {
+        Map<Vertex, Integer> partition = new HashMap<>();
+        for (int v = 0; v < vertices.length; v++) {
+            partition.put(vertices[v], labels[v]);
+        }
+        return partition;
+    }
+
+    /**
+     * Convertit une partition Vertex -> communauté en étiquettes par indice de sommet.
+     */
+    public int[] toLabels(Map<Vertex, Integer> partition) {
+        int[] labels = new int[vertices.length];
+        for (int v = 0; v < vertices.length; v++) {
+            labels[v] = partition.get(vertices[v]);
+        }
+        return labels;
+    }
+
+    @Override
+    public String toString() {
+        return "CsrGraph: " + vertexCount() + " vertices, " + edgeCount() + " edges";
+    }
+}
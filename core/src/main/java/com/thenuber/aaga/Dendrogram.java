@@ -0,0 +1,249 @@
+package com.thenuber.aaga;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Dendrogram
+ *  - Résultat d'un algorithme divisif: la partition initiale puis le journal des scissions.
+ *  - Niveau 0: composantes connexes du graphe d'entrée. Niveau k: partition après la k-ième étape
+ *    (une étape = une passe de suppression d'arêtes, qui peut ne scinder aucune communauté).
+ *  - Une scission i retire les sommets members(i) de la communauté parent(i) et les place dans
+ *    une nouvelle communauté child(i). Les ids de communautés sont stables: 0..k-1 au niveau 0,
+ *    puis k, k+1, ... dans l'ordre des scissions.
+ *  - Tout est stocké dans des tableaux d'entiers: O(n) pour la partition initiale, plus la taille des
+ *    côtés déplacés (le plus petit côté, donc O(n log n) au total) au lieu d'une Map par étape.
+ *  - labels(level) reconstruit une partition à la demande en rejouant les scissions.
+ */
+public class Dendrogram {
+    private final CsrGraph graph;
+    private final int[] initialLabels;
+    private final int initialCommunities;
+    private final int steps;
+    private final int[] stepEnd; // scissions de l'étape k: [stepEnd[k-1], stepEnd[k]), stepEnd[0] = 0
+    private final int[] splitParent;
+    private final int[] splitChild;
+    private final int[] memberOffsets;
+    private final int[] members;
+
+    private Dendrogram(Builder b) {
+        this.graph = b.graph;
+        this.initialLabels = b.initialLabels;
+        this.initialCommunities = b.initialCommunities;
+        this.steps = b.steps;
+        this.stepEnd = Arrays.copyOf(b.stepEnd, b.steps + 1);
+        this.splitParent = Arrays.copyOf(b.splitParent, b.splits);
+        this.splitChild = Arrays.copyOf(b.splitChild, b.splits);
+        this.memberOffsets = Arrays.copyOf(b.memberOffsets, b.splits + 1);
+        this.members = Arrays.copyOf(b.members, b.memberOffsets[b.splits]);
+    }
+
+    /**
+     * Graphe sur lequel l'algorithme a été exécuté.
+     */
+    public CsrGraph graph() { return graph; }
+
+    /**
+     * Nombre de niveaux (étapes + 1 pour la partition initiale).
+     */
+    public int levelCount() { return steps + 1; }
+
+    /**
+     * Nombre de communautés au niveau donné.
+     */
+    public int communityCount(int level) { return initialCommunities + stepEnd[level]; }
+
+    /**
+     * Nombre total de scissions.
+     */
+    public int splitCount() { return splitParent.length; }
+
+    /**
+     * Première scission de l'étape menant au niveau level (level >= 1).
+     */
+    public int firstSplit(int level) { return stepEnd[level - 1]; }
+
+    /**
+     * Scission suivant la dernière scission de l'étape menant au niveau level (level >= 1).
+     */
+    public int endSplit(int level) { return stepEnd[level]; }
+
+    /**
+     * Communauté scindée par la scission i.
+     */
+    public int parent(int split) { return splitParent[split]; }
+
+    /**
+     * Nouvelle communauté créée par la scission i.
+     */
+    public int child(int split) { return splitChild[split]; }
+
+    /**
+     * Sommets déplacés par la scission i (copie).
+     */
+    public int[] members(int split) {
+        return Arrays.copyOfRange(members, memberOffsets[split], memberOffsets[split + 1]);
+    }
+
+    /**
+     * Partition au niveau donné: communauté de chaque sommet.
+     */
+    public int[] labels(int level) {
+        int[] labels = initialLabels.clone();
+        for (int i = 0; i < stepEnd[level]; i++) {
+            for (int k = memberOffsets[i]; k < memberOffsets[i + 1]; k++) {
+                labels[members[k]] = splitChild[i];
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Partition au niveau donné sous forme Vertex -> communauté.
+     */
+    public Map<Vertex, Integer> partition(int level) {
+        return graph.toPartition(labels(level));
+    }
+
+    /**
+     * Builder
+     *  - Construit le journal au fil de l'algorithme: split(...) pour chaque scission (typiquement celles
+     *    signalées par un ComponentTracker), endStep() à la fin de chaque étape.
+     *  - endStep(labels) déduit les scissions d'un étiquetage complet (O(n)): dans chaque communauté,
+     *    la plus grande partie garde l'id et les autres deviennent de nouvelles communautés.
+     *  - Avec un SplitLog, la partition initiale, chaque scission et chaque fin d'étape y sont aussi
+     *    écrites au fur et à mesure.
+     */
+    public static class Builder {
+        private final CsrGraph graph;
+        private final int[] initialLabels;
+        private final int initialCommunities;
+        private final int[] current;
+        private final SplitLog log;
+        private int communities;
+        private int steps = 0;
+        private int splits = 0;
+        private int[] stepEnd = new int[16];
+        private int[] splitParent = new int[16];
+        private int[] splitChild = new int[16];
+        private int[] memberOffsets = new int[17];
+        private int[] members = new int[16];
+
+        /**
+         * initialLabels: communautés du niveau 0, ids denses 0..k-1.
+         */
+        public Builder(CsrGraph graph, int[] initialLabels) {
+            this(graph, initialLabels, null);
+        }
+
+        /**
+         * Même chose, en écrivant le journal dans log (null: aucun).
+         */
+        public Builder(CsrGraph graph, int[] initialLabels, SplitLog log) {
+            this.graph = graph;
+            this.log = log;
+            this.initialLabels = initialLabels.clone();
+            this.current = initialLabels.clone();
+            int k = 0;
+            for (int c : initialLabels) k = Math.max(k, c + 1);
+            this.initialCommunities = k;
+            this.communities = k;
+            if (log != null) log.begin(initialLabels);
+        }
+
+        /**
+         * Communauté courante de v.
+         */
+        public int community(int v) { return current[v]; }
+
+        /**
+         * Nombre de communautés courant.
+         */
+        public int communityCount() { return communities; }
+
+        /**
+         * Les sommets vertices[from..to) quittent la communauté parent pour la nouvelle communauté child,
+         * qui doit être l'id suivant (communityCount()), comme dans ComponentTracker.
+         */
+        public void split(int parent, int child, int[] vertices, int from, int to) {
+            if (child != communities) {
+                throw new IllegalArgumentException("Expected community id " + communities + ", got " + child);
+            }
+            communities++;
+            if (splits == splitParent.length) {
+                splitParent = Arrays.copyOf(splitParent, 2 * splits);
+                splitChild = Arrays.copyOf(splitChild, 2 * splits);
+                memberOffsets = Arrays.copyOf(memberOffsets, 2 * splits + 1);
+            }
+            int size = to - from;
+            int offset = memberOffsets[splits];
+            if (offset + size > members.length) {
+                members = Arrays.copyOf(members, Math.max(offset + size, 2 * members.length));
+            }
+            System.arraycopy(vertices, from, members, offset, size);
+            for (int k = from; k < to; k++) {
+                current[vertices[k]] = child;
+            }
+            splitParent[splits] = parent;
+            splitChild[splits] = child;
+            memberOffsets[++splits] = offset + size;
+            if (log != null) log.split(parent, child, vertices, from, to);
+        }
+
+        /**
+         * Termine l'étape courante.
+         */
+        public void endStep() {
+            if (steps + 1 == stepEnd.length) {
+                stepEnd = Arrays.copyOf(stepEnd, 2 * stepEnd.length);
+            }
+            stepEnd[++steps] = splits;
+            if (log != null) log.endStep();
+        }
+
+        /**
+         * Termine l'étape courante à partir d'un étiquetage complet (ids denses 0..k-1) qui raffine
+         * la partition courante.
+         */
+        public void endStep(int[] labels) {
+            int n = labels.length;
+            int k = 0;
+            for (int l : labels) k = Math.max(k, l + 1);
+
+            // Parent community and size of every new label
+            int[] parentOf = new int[k];
+            int[] size = new int[k + 1];
+            for (int v = 0; v < n; v++) {
+                parentOf[labels[v]] = current[v];
+                size[labels[v]]++;
+            }
+
+            // In each parent community, the largest part keeps the id
+            int[] keeper = new int[communities];
+            Arrays.fill(keeper, -1);
+            for (int l = 0; l < k; l++) {
+                int p = parentOf[l];
+                if (size[l] > 0 && (keeper[p] < 0 || size[l] > size[keeper[p]])) keeper[p] = l;
+            }
+
+            // Group the vertices by new label (counting sort) and split off every non keeper part
+            int[] start = new int[k + 1];
+            for (int l = 0; l < k; l++) start[l + 1] = start[l] + size[l];
+            int[] cursor = Arrays.copyOf(start, k);
+            int[] grouped = new int[n];
+            for (int v = 0; v < n; v++) {
+                grouped[cursor[labels[v]]++] = v;
+            }
+            for (int l = 0; l < k; l++) {
+                if (size[l] > 0 && keeper[parentOf[l]] != l) {
+                    split(parentOf[l], communities, grouped, start[l], start[l + 1]);
+                }
+            }
+            endStep();
+        }
+
+        public Dendrogram build() {
+            return new Dendrogram(this);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.thenuber.aaga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * EdgeHeap
+ *  - Tas binaire max indexé par id d'arête: valeur (betweenness) de chaque arête présente, avec la
+ *    position de chaque arête dans le tas pour la modifier ou la retirer en O(log m).
+ *  - set(e, value) insère e ou change sa valeur (augmentation ou diminution), remove(e) la retire.
+ *  - maxEdges(): toutes les arêtes de valeur maximale, en O(t log t) pour t ex-aequo: une arête égale
+ *    au maximum n'a au-dessus d'elle que des arêtes égales au maximum, on les trouve donc en
+ *    parcourant le tas depuis la racine sans descendre sous une valeur plus petite.
+ *  - Utilisé par GirvanNewmanRevised, où seules les arêtes des composantes recalculées changent
+ *    de valeur d'une itération à l'autre.
+ */
+public class EdgeHeap {
+    private final int[] heap; // ids d'arêtes, heap[0] de valeur maximale
+    private final int[] position; // position de chaque arête dans heap, -1 si absente
+    private final double[] value;
+    private int size = 0;
+
+    // DFS stack of maxEdges
+    private int[] stack = new int[16];
+
+    /**
+     * Tas vide pour les ids d'arêtes 0..capacity-1.
+     */
+    public EdgeHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.value = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Tas des arêtes présentes de g, de valeur eb[e] (construction en O(m)).
+     */
+    public static EdgeHeap of(CsrGraph g, double[] eb) {
+        EdgeHeap h = new EdgeHeap(g.edgeIdCount());
+        for (int e = 0; e < g.edgeIdCount(); e++) {
+            if (g.isRemoved(e)) continue;
+            h.value[e] = eb[e];
+            h.position[e] = h.size;
+            h.heap[h.size++] = e;
+        }
+        for (int i = h.size / 2 - 1; i >= 0; i--) h.siftDown(i);
+        return h;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int e) { return position[e] >= 0; }
+
+    /**
+     * Valeur de e (e présente).
+     */
+    public double value(int e) { return value[e]; }
+
+    /**
+     * Valeur maximale (tas non vide).
+     */
+    public double max() { return value[heap[0]]; }
+
+    /**
+     * Insère e avec la valeur v, ou remplace sa valeur.
+     */
+    public void set(int e, double v) {
+        int i = position[e];
+        if (i < 0) {
+            value[e] = v;
+            position[e] = size;
+            heap[size] = e;
+            siftUp(size++);
+            return;
+        }
+        double old = value[e];
+        value[e] = v;
+        if (v > old) siftUp(i);
+        else if (v < old) siftDown(i);
+    }
+
+    /**
+     * Retire e si elle est présente.
+     */
+    public void remove(int e) {
+        int i = position[e];
+        if (i < 0) return;
+        position[e] = -1;
+        int last = heap[--size];
+        if (i == size) return;
+        heap[i] = last;
+        position[last] = i;
+        siftDown(i);
+        siftUp(position[last]);
+    }
+
+    /**
+     * Arêtes de valeur maximale (ex-aequo exacts), par id croissant comme GirvanNewman.maxEdges.
+     */
+    public List<Integer> maxEdges() {
+        if (size == 0) return Collections.emptyList();
+        double max = value[heap[0]];
+        List<Integer> edges = new ArrayList<>();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int i = stack[--top];
+            edges.add(heap[i]);
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                if (Double.compare(value[heap[child]], max) != 0) continue;
+                if (top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+                stack[top++] = child;
+            }
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    private void siftUp(int i) {
+        int e = heap[i];
+        double v = value[e];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (value[p] >= v) break;
+            heap[i] = p;
+            position[p] = i;
+            i = parent;
+        }
+        heap[i] = e;
+        position[e] = i;
+    }
+
+    private void siftDown(int i) {
+        int e = heap[i];
+        double v = value[e];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && value[heap[child + 1]] > value[heap[child]]) child++;
+            int c = heap[child];
+            if (v >= value[c]) break;
+            heap[i] = c;
+            position[c] = i;
+            i = child;
+        }
+        heap[i] = e;
+        position[e] = i;
+    }
+}
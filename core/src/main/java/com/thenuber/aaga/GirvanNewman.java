@@ -0,0 +1,363 @@
+package com.thenuber.aaga;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * GirvanNewman
+ * - Implémentation standard de l'algorithme de Girvan–Newman (GN) pour la
+ * détection de communautés.
+ * - Stratégie: supprimer itérativement les arêtes les plus "centrales"
+ * (betweenness élevée),
+ * et enregistrer la partition (composantes connexes) après chaque suppression.
+ *
+ * Fonctions clés:
+ * - run(g): exécute GN, renvoie le dendrogramme des partitions successives.
+ * - edgeBetweenness(g): calcule l'intermédiarité des arêtes via Brandes (adapté
+ * aux arêtes), sources réparties sur un ForkJoinPool de setThreads(n) threads.
+ * - componentPartition(g): calcule la partition (composantes connexes)
+ * courante.
+ * - setTracing(true): trace par itération (cf. RunTrace), lue par getTrace().
+ * - setStopCriteria: arrêt anticipé (cf. StopCriteria).
+ * - setSplitLog: journal de scissions écrit sur disque au fil de l'exécution (cf. SplitLog).
+ * - setComponentParallel(true): une tâche par composante connexe (cf. ComponentParallelRun),
+ * même Dendrogram.
+ */
+public class GirvanNewman implements GraphAlgorithm {
+
+    // Nombre de sources traitées séquentiellement par une tâche feuille
+    static final int SOURCES_PER_TASK = 32;
+
+    private int threads = 1;
+    private ForkJoinPool pool;
+
+    private boolean tracing = false;
+    private RunTrace trace;
+    private StopCriteria stopCriteria = new StopCriteria();
+    private SplitLog splitLog;
+    private BatchRemoval batch = new BatchRemoval();
+    private boolean componentParallel = false;
+
+    // Numérotation locale des arêtes pour les calculs restreints à quelques composantes
+    private int[] localIndex;
+
+    public GirvanNewman() { }
+
+    /**
+     * Nombre de threads utilisés pour le calcul de la betweenness (1 par défaut).
+     * Le résultat ne dépend pas de cette valeur.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        if (pool != null && threads != this.threads) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() { return threads; }
+
+    protected ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    public void setTracing(boolean tracing) { this.tracing = tracing; }
+
+    public RunTrace getTrace() { return trace; }
+
+    public void setStopCriteria(StopCriteria criteria) { this.stopCriteria = criteria; }
+
+    public StopCriteria getStopCriteria() { return stopCriteria; }
+
+    public void setSplitLog(SplitLog log) { this.splitLog = log; }
+
+    public SplitLog getSplitLog() { return splitLog; }
+
+    /**
+     * Suppression par lots (cf. BatchRemoval; désactivée par défaut: arêtes ex-aequo au maximum).
+     */
+    public void setBatchRemoval(BatchRemoval batch) { this.batch = batch; }
+
+    public BatchRemoval getBatchRemoval() { return batch; }
+
+    /**
+     * Exécution par composantes connexes sur le pool (cf. ComponentParallelRun; désactivée par défaut,
+     * sans effet en suppression par lots ou avec des critères d'arrêt: ComponentParallelRun décompose
+     * tout le graphe, la boucle séquentielle s'arrête plus tôt). Le Dendrogram est identique.
+     */
+    public void setComponentParallel(boolean componentParallel) { this.componentParallel = componentParallel; }
+
+    public boolean isComponentParallel() { return componentParallel; }
+
+    /**
+     * Vrai si run() passe par ComponentParallelRun.
+     */
+    protected boolean runsByComponent() {
+        return componentParallel && !batch.isEnabled() && !stopCriteria.isEnabled();
+    }
+
+    /**
+     * Nouvelle trace pour un run() de l'algorithme nommé algorithm (cf. getTrace()).
+     */
+    protected RunTrace newTrace(String algorithm) {
+        trace = new RunTrace(algorithm, RunTrace.DIVISIVE_PHASES, tracing);
+        return trace;
+    }
+    /**
+     * - Entrée: un graphe CsrGraph (copié en interne pour ne pas modifier
+     * l'original).
+     * - Boucle:
+     * 1) Calculer la betweenness des arêtes.
+     * 2) Trouver la valeur maximale et l'ensemble des arêtes ex-aequo (ou un
+     * lot d'arêtes, une par composante, cf. setBatchRemoval).
+     * 3) Supprimer ces arêtes.
+     * 4) Enregistrer la partition (composantes connexes, suivies par un
+     * ComponentTracker) après suppression.
+     * 5) S'arrêter si un critère de getStopCriteria() est atteint.
+     * - Sortie: Dendrogram des partitions (du graphe initial jusqu'au graphe
+     * sans arêtes, ou jusqu'à l'arrêt anticipé), stocké comme journal de scissions.
+     */
+    public Dendrogram run(CsrGraph input) {
+
+        // Copy of input graph (only the removed-edge bitset is duplicated)
+        CsrGraph g = new CsrGraph(input);
+
+        // Connected components, updated incrementally on each edge removal
+        ComponentTracker components = new ComponentTracker(g);
+
+        // Split log of the connected components partitions obtained with the algorithm
+        Dendrogram.Builder partitions = new Dendrogram.Builder(input, components.labels(), splitLog);
+
+        RunTrace trace = newTrace("gn");
+        StopCriteria.Monitor stop = getStopCriteria().monitor(input, components.labels());
+        if (runsByComponent()) {
+            return new ComponentParallelRun(pool()).run(components, partitions, stop, trace);
+        }
+
+        while (g.edgeCount() > 0) {
+            trace.beginIteration();
+
+            // 1. Calculate edge betweenness for all edges
+            double[] eb = edgeBetweenness(g);
+            trace.endPhase(RunTrace.BETWEENNESS);
+
+            // 2. Get all edges with maximum edge betweenness (or a batch, cf. BatchRemoval)
+            List<Integer> toRemove = batch.isEnabled() ? batch.select(g, eb, components) : maxEdges(g, eb);
+            trace.endPhase(RunTrace.MAX_SCAN);
+
+            // 3. Remove all those edges, logging the components they split
+            for (int e : toRemove) {
+                int child = components.removeEdge(e);
+                trace.endPhase(RunTrace.REMOVAL);
+                if (child >= 0) {
+                    partitions.split(components.lastParent(), child, components.lastMembers(), 0, components.lastSize());
+                    stop.split(components.lastParent(), child, components.lastMembers(), 0, components.lastSize());
+                }
+                trace.endPhase(RunTrace.PARTITION);
+            }
+
+            // 4. Save the current connected components partition
+            partitions.endStep();
+            trace.endPhase(RunTrace.PARTITION);
+            trace.endIteration(toRemove.size(), components.componentCount(), 0);
+
+            // 5. Stop early once a stopping criterion is met
+            if (stop.endStep(partitions.communityCount())) break;
+        }
+        return partitions.build();
+    }
+
+    /**
+     * Ids des arêtes présentes dont la betweenness vaut le maximum.
+     */
+    static List<Integer> maxEdges(CsrGraph g, double[] eb) {
+        double max = 0.0;
+        for (int e = 0; e < eb.length; e++) {
+            if (!g.isRemoved(e) && eb[e] > max) max = eb[e];
+        }
+        List<Integer> edges = new ArrayList<>();
+        for (int e = 0; e < eb.length; e++) {
+            if (!g.isRemoved(e) && Double.compare(eb[e], max) == 0) {
+                edges.add(e);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * edgeBetweenness
+     * - Implémentation de Brandes (graphe non pondéré) adaptée aux ARÊTES.
+     * - Principe:
+     * * Pour chaque source s, on fait un BFS pour obtenir dist[], sigma[], preds[]:
+     * - dist[x]: distance de s à x.
+     * - sigma[x]: nb. de plus courts chemins de s vers x.
+     * - preds[x]: prédécesseurs de x sur des plus courts chemins depuis s.
+     * * Puis on accumule les dépendances delta[] en dépilant un stack (ordre
+     * topologique
+     * des distances décroissantes), ce qui permet de calculer les contributions sur
+     * chaque arête (v,w) appartenant à au moins un plus court chemin de s vers w.
+     * - Complexité: O(VE) par passe (toutes sources s).
+     * - Pour graphe non orienté, division finale par 2.
+     * - Parallélisme: les sources sont réparties sur le pool (accumulateur par tâche,
+     * réduction déterministe).
+     * - Mémoire: chaque thread réutilise son BrandesWorkspace, la boucle par source
+     * n'alloue rien.
+     * - Résultat indexé par id d'arête (0 pour les arêtes supprimées).
+     */
+    public double[] edgeBetweenness(CsrGraph g) {
+        // Sources réparties sur le pool, réduction dans un ordre fixe (cf. SourceRangeTask)
+        double[] edge_betweenness = pool().invoke(
+                new SourceRangeTask(g, 0, g.vertexCount(), null, 0, 0, null, g.edgeIdCount()));
+
+        // Graphe non orienté: chaque chemin contribue deux fois → division par 2
+        for (int e = 0; e < edge_betweenness.length; e++) {
+            edge_betweenness[e] /= 2.0;
+        }
+        return edge_betweenness;
+    }
+
+    /**
+     * Recalcule la betweenness des arêtes présentes des composantes connexes formées par
+     * sources[0..count) (union de composantes entières), sans toucher aux autres arêtes.
+     * - Seules les sources de ces composantes sont parcourues, et les accumulateurs ne couvrent
+     * que leurs arêtes.
+     * - Même arbre de réduction que edgeBetweenness(g), dont on élague les sous-arbres sans source:
+     * leur contribution aux arêtes des composantes est exactement 0.0. Le résultat est donc
+     * identique au bit près à celui d'un calcul complet.
+     */
+    public void edgeBetweenness(CsrGraph g, int[] sources, int count, double[] edge_betweenness) {
+        int[] scope = Arrays.copyOf(sources, count);
+        Arrays.sort(scope);
+
+        // Present edges of the components, numbered locally
+        if (localIndex == null || localIndex.length < g.edgeIdCount()) {
+            localIndex = new int[g.edgeIdCount()];
+        }
+        int[] edges = new int[Math.max(1, count)];
+        int edgeCount = 0;
+        for (int v : scope) {
+            for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                int e = g.edgeAt(j);
+                if (g.isRemoved(e) || g.target(j) < v) continue;
+                if (edgeCount == edges.length) edges = Arrays.copyOf(edges, 2 * edgeCount);
+                localIndex[e] = edgeCount;
+                edges[edgeCount++] = e;
+            }
+        }
+        if (edgeCount == 0) return;
+
+        double[] acc = pool().invoke(
+                new SourceRangeTask(g, 0, g.vertexCount(), scope, 0, count, localIndex, edgeCount));
+        for (int k = 0; k < edgeCount; k++) {
+            edge_betweenness[edges[k]] = acc[k] / 2.0;
+        }
+    }
+
+    /**
+     * SourceRangeTask
+     * - Calcule la somme des contributions des sources [lo, hi) dans un accumulateur propre à la tâche.
+     * - Découpage récursif au milieu jusqu'à SOURCES_PER_TASK sources: la forme de l'arbre ne dépend que
+     *   du nombre de sommets, jamais du nombre de threads.
+     * - Réduction: gauche + droite, arête par arête, dans cet ordre. L'ordre des additions flottantes est
+     *   donc fixe et le résultat identique au bit près quel que soit le parallélisme.
+     * - Variante restreinte: seules les sources scope[from..to) (triées) sont utilisées, un sous-arbre sans
+     *   source renvoie null, et l'accumulateur est indexé par localIndex[e] au lieu de l'id d'arête.
+     */
+    static class SourceRangeTask extends RecursiveTask<double[]> {
+        private final CsrGraph g;
+        private final int lo;
+        private final int hi;
+        private final int[] scope;
+        private final int from;
+        private final int to;
+        private final int[] localIndex;
+        private final int width;
+
+        SourceRangeTask(CsrGraph g, int lo, int hi, int[] scope, int from, int to, int[] localIndex, int width) {
+            this.g = g;
+            this.lo = lo;
+            this.hi = hi;
+            this.scope = scope;
+            this.from = from;
+            this.to = to;
+            this.localIndex = localIndex;
+            this.width = width;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (scope != null && from == to) {
+                return null;
+            }
+
+            if (hi - lo <= SOURCES_PER_TASK) {
+                double[] acc = new double[width];
+                BrandesWorkspace ws = BrandesWorkspace.get(g);
+                if (scope == null) {
+                    for (int s = lo; s < hi; s++) {
+                        ws.bfs(g, s);
+                        ws.accumulate(g, acc);
+                    }
+                } else {
+                    for (int k = from; k < to; k++) {
+                        ws.bfs(g, scope[k]);
+                        ws.accumulate(g, acc, localIndex);
+                    }
+                }
+                return acc;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            int split = scope == null ? 0 : lowerBound(scope, from, to, mid);
+            SourceRangeTask left = new SourceRangeTask(g, lo, mid, scope, from, split, localIndex, width);
+            SourceRangeTask right = new SourceRangeTask(g, mid, hi, scope, split, to, localIndex, width);
+            left.fork();
+            double[] r = right.compute();
+            double[] l = left.join();
+            if (l == null) return r;
+            if (r == null) return l;
+            for (int e = 0; e < l.length; e++) {
+                l[e] += r[e];
+            }
+            return l;
+        }
+
+        // First index in a[from..to) whose value is >= key
+        static int lowerBound(int[] a, int from, int to, int key) {
+            while (from < to) {
+                int m = (from + to) >>> 1;
+                if (a[m] < key) from = m + 1;
+                else to = m;
+            }
+            return from;
+        }
+    }
+
+    /**
+     * Variante sur SimpleGraph: betweenness de chaque arête présente, indexée par Edge.
+     */
+    public Map<Edge, Double> edgeBetweenness(SimpleGraph input) {
+        CsrGraph g = CsrGraph.of(input);
+        double[] eb = edgeBetweenness(g);
+        Map<Edge, Double> edge_betweenness = new HashMap<>();
+        for (int e = 0; e < eb.length; e++) {
+            edge_betweenness.put(g.edge(e), eb[e]);
+        }
+        return edge_betweenness;
+    }
+}
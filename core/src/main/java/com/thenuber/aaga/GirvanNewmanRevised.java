@@ -0,0 +1,146 @@
+package com.thenuber.aaga;
+
+import java.util.*;
+
+/**
+ * GirvanNewmanRevised
+ * - Même algorithme que GirvanNewman, mais la betweenness est gardée en cache
+ * d'une itération à l'autre.
+ * - Un plus court chemin ne sort jamais de sa composante connexe: après une
+ * suppression, seules les composantes qui contenaient une arête supprimée (la
+ * composante scindée et sa nouvelle partie le cas échéant) sont recalculées.
+ * Les autres gardent exactement leurs valeurs.
+ * - Le recalcul restreint utilise le même arbre de réduction que le calcul
+ * complet: les valeurs, et donc la suite des suppressions, sont identiques au
+ * bit près à celles de GirvanNewman.
+ * - Les valeurs sont aussi gardées dans un EdgeHeap: seules les arêtes recalculées y sont mises à
+ * jour, et les arêtes de betweenness maximale en sont extraites sans parcourir toutes les arêtes
+ * (hors suppression par lots, qui a besoin du maximum de chaque composante).
+ *
+ * Fonctions clés:
+ * - run(g): exécute GN avec cache, renvoie le dendrogramme des partitions successives.
+ * - recalculateEdgeBetweenness(g, eb, vertices, count): recalcule eb sur les
+ * composantes des sommets donnés.
+ */
+public class GirvanNewmanRevised extends GirvanNewman {
+    /**
+     * - Entrée: un graphe CsrGraph (copié en interne pour ne pas modifier
+     * l'original).
+     * - Boucle:
+     * 1) Calculer la betweenness (complète à la première itération, ensuite seulement
+     * sur les composantes touchées par les suppressions précédentes).
+     * 2) Trouver la valeur maximale et l'ensemble des arêtes ex-aequo (ou un
+     * lot, cf. setBatchRemoval).
+     * 3) Supprimer ces arêtes.
+     * 4) Enregistrer la partition (composantes connexes) après suppression.
+     * 5) S'arrêter si un critère de getStopCriteria() est atteint.
+     * - Sortie: Dendrogram des partitions (du graphe initial jusqu'au graphe
+     * sans arêtes, ou jusqu'à l'arrêt anticipé), stocké comme journal de scissions.
+     */
+    public Dendrogram run(CsrGraph input) {
+
+        // Copy of input graph (only the removed-edge bitset is duplicated)
+        CsrGraph g = new CsrGraph(input);
+
+        // Connected components, updated incrementally on each edge removal
+        ComponentTracker components = new ComponentTracker(g);
+
+        // Split log of the connected components partitions obtained with the algorithm
+        Dendrogram.Builder partitions = new Dendrogram.Builder(input, components.labels(), getSplitLog());
+
+        RunTrace trace = newTrace("gnr");
+        StopCriteria.Monitor stop = getStopCriteria().monitor(input, components.labels());
+        if (runsByComponent()) {
+            // Each component task already recomputes its own component only
+            return new ComponentParallelRun(pool()).run(components, partitions, stop, trace);
+        }
+
+        // Betweenness cache: exact values for every present edge (computed on the first iteration),
+        // indexed by a max-heap unless the batch mode scans the components itself
+        double[] eb = null;
+        BatchRemoval batch = getBatchRemoval();
+        EdgeHeap heap = null;
+
+        // Vertices of the components touched by the last removals
+        int[] affectedVertices = new int[g.vertexCount()];
+        boolean[] affected = new boolean[g.vertexCount()];
+        int count = 0;
+
+        while (g.edgeCount() > 0) {
+            trace.beginIteration();
+
+            // 1. Calculate edge betweenness, then only recalculate the components whose shortest
+            // paths may have changed
+            if (eb == null) {
+                eb = edgeBetweenness(g);
+                if (!batch.isEnabled()) heap = EdgeHeap.of(g, eb);
+            } else {
+                recalculateEdgeBetweenness(g, eb, affectedVertices, count);
+                if (heap != null) {
+                    for (int k = 0; k < count; k++) {
+                        int v = affectedVertices[k];
+                        for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                            int e = g.edgeAt(j);
+                            if (!g.isRemoved(e) && g.target(j) > v) heap.set(e, eb[e]);
+                        }
+                    }
+                }
+            }
+            trace.endPhase(RunTrace.BETWEENNESS);
+
+            // 2. Get all edges with maximum edge betweenness (or a batch, cf. BatchRemoval)
+            List<Integer> toRemove = batch.isEnabled() ? batch.select(g, eb, components) : heap.maxEdges();
+            trace.endPhase(RunTrace.MAX_SCAN);
+
+            // 3. Remove all those edges, logging the components they split
+            for (int e : toRemove) {
+                int child = components.removeEdge(e);
+                eb[e] = 0.0;
+                if (heap != null) heap.remove(e);
+                trace.endPhase(RunTrace.REMOVAL);
+                if (child >= 0) {
+                    partitions.split(components.lastParent(), child, components.lastMembers(), 0, components.lastSize());
+                    stop.split(components.lastParent(), child, components.lastMembers(), 0, components.lastSize());
+                }
+                trace.endPhase(RunTrace.PARTITION);
+            }
+
+            // 4. Save the current connected components partition
+            partitions.endStep();
+            trace.endPhase(RunTrace.PARTITION);
+
+            // Components affected by the removals, that is the components (after removal) containing
+            // an endpoint of a removed edge
+            count = 0;
+            for (int e : toRemove) {
+                for (int side = 0; side < 2; side++) {
+                    int cc = components.component(side == 0 ? g.edgeSource(e) : g.edgeTarget(e));
+                    if (affected[components.member(cc, 0)]) continue;
+                    for (int k = 0; k < components.size(cc); k++) {
+                        int v = components.member(cc, k);
+                        affected[v] = true;
+                        affectedVertices[count++] = v;
+                    }
+                }
+            }
+            for (int k = 0; k < count; k++) affected[affectedVertices[k]] = false;
+            trace.endPhase(RunTrace.REMOVAL);
+            trace.endIteration(toRemove.size(), components.componentCount(), 0);
+
+            // 5. Stop early once a stopping criterion is met
+            if (stop.endStep(partitions.communityCount())) break;
+        }
+
+        return partitions.build();
+
+    }
+
+    /**
+     * Recalcule edge_betweenness sur les composantes connexes contenant affectedVertices[0..count)
+     * (composantes entières). Les arêtes des autres composantes ne sont pas modifiées.
+     */
+    public double[] recalculateEdgeBetweenness(CsrGraph g, double[] edge_betweenness, int[] affectedVertices, int count) {
+        edgeBetweenness(g, affectedVertices, count, edge_betweenness);
+        return edge_betweenness;
+    }
+}
@@ -0,0 +1,41 @@
+package com.thenuber.aaga;
+
+public interface GraphAlgorithm extends AutoCloseable {
+    public Dendrogram run(CsrGraph input);
+
+    /**
+     * Enregistre la trace par itération de chaque run() (phases, arêtes supprimées, composantes,
+     * allocation), lue ensuite par getTrace(). Les événements JFR sont émis dans tous les cas,
+     * dès qu'un enregistrement Flight Recorder les active.
+     */
+    public void setTracing(boolean tracing);
+
+    /**
+     * Trace du dernier run() (vide si setTracing(true) n'a pas été appelé), null avant le premier run().
+     */
+    public RunTrace getTrace();
+
+    /**
+     * Critères d'arrêt anticipé de run() (cf. StopCriteria; par défaut aucun).
+     */
+    public void setStopCriteria(StopCriteria criteria);
+
+    public StopCriteria getStopCriteria();
+
+    /**
+     * Journal de scissions écrit sur disque au fil de run() (cf. SplitLog; null par défaut: aucun).
+     */
+    public void setSplitLog(SplitLog log);
+
+    public SplitLog getSplitLog();
+
+    /**
+     * Arrête les threads de l'algorithme (pool de setThreads); un run() suivant les recrée.
+     */
+    @Override
+    public default void close() { }
+
+    public default Dendrogram run(SimpleGraph input) {
+        return run(CsrGraph.of(input));
+    }
+}
@@ -0,0 +1,323 @@
+package com.thenuber.aaga;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * GraphLoader
+ *  - Lecture d'une liste d'arêtes (deux colonnes par ligne, lignes vides et commentaires "#" ignorés).
+ *  - Chargeur rapide (par défaut): fichier projeté en mémoire (FileChannel.map), découpé en morceaux
+ *    analysés en parallèle, identifiants lus directement depuis les octets. Les sommets sont numérotés
+ *    dans l'ordre de première apparition, comme avec le chargeur texte, et le graphe est construit
+ *    directement à partir des tableaux d'identifiants.
+ *  - Le chargeur rapide ne traite que les identifiants entiers positifs écrits sans zéro initial,
+ *    séparés par un délimiteur d'un seul caractère littéral (ou "\t"). Dans tous les autres cas
+ *    (noms, délimiteur regex, colonnes vides...), on revient au chargeur texte loadEdgeListText:
+ *    le graphe obtenu est toujours le même.
+ *  - loadCsr accepte aussi un snapshot binaire écrit par GraphSnapshot.write (option -S de Main).
+ */
+public class GraphLoader {
+
+    // Taille maximale d'un morceau analysé par une tâche (une projection mémoire par morceau)
+    static final long CHUNK_BYTES = 64L << 20;
+
+    public static SimpleGraph loadEdgeList(String path, String delimiter) throws IOException {
+        EdgeList edges = parseEdgeList(path, delimiter, 1);
+        if (edges == null) {
+            return loadEdgeListText(path, delimiter);
+        }
+        SimpleGraph g = new SimpleGraph();
+        Vertex[] vertices = new Vertex[edges.names.length];
+        for (int v = 0; v < vertices.length; v++) {
+            vertices[v] = g.addVertex(edges.names[v]);
+        }
+        for (int k = 0; k < edges.count; k++) {
+            g.addEdge(vertices[edges.u[k]], vertices[edges.v[k]]);
+        }
+        return g;
+    }
+
+    /**
+     * Chargeur texte d'origine (BufferedReader, String.split(delimiter) et trim() par ligne),
+     * accepte n'importe quel délimiteur regex et n'importe quels noms de sommets.
+     */
+    public static SimpleGraph loadEdgeListText(String path, String delimiter) throws IOException {
+        SimpleGraph g = new SimpleGraph();
+        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split(delimiter);
+                if (parts.length < 2) continue;
+                String a = parts[0].trim();
+                String b = parts[1].trim();
+                g.addEdge(a, b);
+            }
+        }
+        return g;
+    }
+
+    /**
+     * Charge la liste d'arêtes directement au format CSR.
+     */
+    public static CsrGraph loadCsr(String path, String delimiter) throws IOException {
+        return loadCsr(path, delimiter, 1);
+    }
+
+    /**
+     * Charge la liste d'arêtes directement au format CSR, en analysant le fichier sur threads threads.
+     * Un snapshot binaire (cf. GraphSnapshot, reconnu à son en-tête) est chargé tel quel.
+     */
+    public static CsrGraph loadCsr(String path, String delimiter, int threads) throws IOException {
+        if (GraphSnapshot.isSnapshot(path)) {
+            return GraphSnapshot.read(path);
+        }
+        EdgeList edges = parseEdgeList(path, delimiter, threads);
+        if (edges == null) {
+            return CsrGraph.of(loadEdgeListText(path, delimiter));
+        }
+        Vertex[] vertices = new Vertex[edges.names.length];
+        for (int v = 0; v < vertices.length; v++) {
+            vertices[v] = new Vertex(v, edges.names[v]);
+        }
+        return CsrGraph.of(vertices, edges.u, edges.v, edges.count);
+    }
+
+    /**
+     * Arêtes lues par le chargeur rapide: sommets 0..n-1 (names[i] = nom du sommet i, dans l'ordre
+     * de première apparition), arêtes {u[k], v[k]} pour k < count, boucles déjà retirées.
+     */
+    static class EdgeList {
+        String[] names;
+        int[] u;
+        int[] v;
+        int count;
+    }
+
+    /**
+     * Chargeur rapide: renvoie null si le fichier ou le délimiteur sort du format accepté.
+     */
+    static EdgeList parseEdgeList(String path, String delimiter, int threads) throws IOException {
+        int delim = literalDelimiter(delimiter);
+        if (delim < 0) return null;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            // Chunk boundaries, each one just after a line feed
+            int chunks = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2,
+                    Math.max(4L * threads, (size + CHUNK_BYTES - 1) / CHUNK_BYTES)));
+            long[] bounds = new long[chunks + 1];
+            bounds[chunks] = size;
+            for (int i = 1; i < chunks; i++) {
+                bounds[i] = Math.max(bounds[i - 1], nextLine(channel, size * i / chunks, size));
+            }
+
+            List<ChunkParser> parsers = new ArrayList<>();
+            for (int i = 0; i < chunks; i++) {
+                parsers.add(new ChunkParser(channel, bounds[i], bounds[i + 1], (byte) delim));
+            }
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        ForkJoinTask.invokeAll(parsers);
+                    }
+                });
+            } finally {
+                pool.shutdown();
+            }
+
+            long total = 0;
+            for (ChunkParser parser : parsers) {
+                if (parser.ids == null) return null;
+                total += parser.count;
+            }
+            if (total / 2 > Integer.MAX_VALUE - 8) return null;
+            return number(parsers, (int) (total / 2));
+        }
+    }
+
+    // Single byte delimiter for the fast path, -1 if the regex is anything else
+    private static int literalDelimiter(String delimiter) {
+        if (delimiter.equals("\\t") || delimiter.equals("\t")) return '\t';
+        if (delimiter.length() != 1) return -1;
+        char c = delimiter.charAt(0);
+        if (c < ' ' && c != '\t') return -1;
+        if (c >= 128 || (c >= '0' && c <= '9') || c == '#' || ".$|()[]{}^?*+\\".indexOf(c) >= 0) return -1;
+        return c;
+    }
+
+    // Position following the first line feed at or after from (size if none)
+    private static long nextLine(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long pos = from;
+        while (pos < size) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) break;
+            for (int k = 0; k < read; k++) {
+                if (buffer.get(k) == '\n') return pos + k + 1;
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    /**
+     * Sommets numérotés dans l'ordre de première apparition (les boucles ne créent pas de sommet,
+     * comme SimpleGraph.addEdge), parcours séquentiel des morceaux dans l'ordre du fichier.
+     */
+    private static EdgeList number(List<ChunkParser> parsers, int m) {
+        int maxId = -1;
+        for (ChunkParser parser : parsers) maxId = Math.max(maxId, parser.maxId);
+
+        // Dense table when ids are reasonably compact, hash map otherwise
+        boolean dense = maxId < 16L * (m + 1) + 1024;
+        int[] table = dense ? new int[maxId + 1] : null;
+        if (dense) Arrays.fill(table, -1);
+        Map<Integer, Integer> map = dense ? null : new HashMap<>();
+
+        EdgeList edges = new EdgeList();
+        edges.u = new int[m];
+        edges.v = new int[m];
+        int[] raw = new int[16]; // raw[i]: id read for vertex i
+        int n = 0;
+        for (ChunkParser parser : parsers) {
+            int[] ids = parser.ids;
+            for (int k = 0; k < parser.count; k += 2) {
+                if (ids[k] == ids[k + 1]) continue;
+                for (int side = 0; side < 2; side++) {
+                    int id = ids[k + side];
+                    int index;
+                    if (dense) {
+                        index = table[id];
+                        if (index < 0) table[id] = index = n;
+                    } else {
+                        Integer known = map.get(id);
+                        if (known == null) map.put(id, index = n);
+                        else index = known;
+                    }
+                    if (index == n) {
+                        if (n == raw.length) raw = Arrays.copyOf(raw, 2 * n);
+                        raw[n++] = id;
+                    }
+                    if (side == 0) edges.u[edges.count] = index;
+                    else edges.v[edges.count] = index;
+                }
+                edges.count++;
+            }
+        }
+        edges.names = new String[n];
+        for (int i = 0; i < n; i++) edges.names[i] = Integer.toString(raw[i]);
+        return edges;
+    }
+
+    /**
+     * ChunkParser
+     * - Analyse les lignes commençant dans [from, to) d'un fichier projeté en mémoire.
+     * - Résultat: ids[0..count) = identifiants bruts (a0, b0, a1, b1, ...), ou ids == null si une ligne
+     *   sort du format du chargeur rapide.
+     */
+    static class ChunkParser extends RecursiveAction {
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+        private final byte delim;
+        int[] ids = new int[64];
+        int count = 0;
+        int maxId = -1;
+
+        ChunkParser(FileChannel channel, long from, long to, byte delim) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.delim = delim;
+        }
+
+        @Override
+        protected void compute() {
+            if (to <= from) return;
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            } catch (IOException e) {
+                ids = null;
+                return;
+            }
+            int end = (int) (to - from);
+            int pos = 0;
+            while (pos < end && ids != null) {
+                int lineEnd = pos;
+                while (lineEnd < end && buffer.get(lineEnd) != '\n') lineEnd++;
+                parseLine(buffer, pos, lineEnd);
+                pos = lineEnd + 1;
+            }
+        }
+
+        // Same rules as loadEdgeListText: trim, skip empty and "#" lines and lines with a single column
+        private void parseLine(MappedByteBuffer buffer, int start, int end) {
+            while (start < end && (buffer.get(start) & 0xff) <= ' ') start++;
+            while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') end--;
+            if (start == end || buffer.get(start) == '#') return;
+
+            int split = start;
+            while (split < end && buffer.get(split) != delim) split++;
+            if (split == end) return; // a single column
+
+            int next = split + 1;
+            while (next < end && buffer.get(next) != delim) next++;
+
+            long a = parseId(buffer, start, split);
+            long b = parseId(buffer, split + 1, next);
+            if (b == EMPTY) {
+                // "a<d><d>..." is a single column only if nothing but delimiters follows
+                for (int k = next; k < end; k++) {
+                    if (buffer.get(k) != delim) {
+                        ids = null;
+                        return;
+                    }
+                }
+                return;
+            }
+            if (a < 0 || b < 0) {
+                ids = null;
+                return;
+            }
+            if (count + 2 > ids.length) ids = Arrays.copyOf(ids, 2 * ids.length);
+            ids[count++] = (int) a;
+            ids[count++] = (int) b;
+            maxId = (int) Math.max(maxId, Math.max(a, b));
+        }
+
+        private static final long EMPTY = -2;
+
+        // Trimmed canonical non negative int in [start, end): EMPTY if blank, -1 if not an id
+        private static long parseId(MappedByteBuffer buffer, int start, int end) {
+            while (start < end && (buffer.get(start) & 0xff) <= ' ') start++;
+            while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') end--;
+            if (start == end) return EMPTY;
+            if (buffer.get(start) == '0' && end - start > 1) return -1; // leading zero: name "01" != "1"
+            long value = 0;
+            for (int k = start; k < end; k++) {
+                int digit = buffer.get(k) - '0';
+                if (digit < 0 || digit > 9) return -1;
+                value = 10 * value + digit;
+                if (value > Integer.MAX_VALUE) return -1;
+            }
+            return value;
+        }
+    }
+}
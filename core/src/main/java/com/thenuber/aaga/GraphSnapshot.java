@@ -0,0 +1,158 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GraphSnapshot
+ *  - Format binaire d'un CsrGraph, pour recharger un graphe sans analyser le fichier texte.
+ *  - Tous les entiers sont en little-endian:
+ *      * en-tête: "AAGA", version (int), n (int), nb. de slots 2m (int), taille en octets des noms (int);
+ *      * table des noms: nameOffsets (int[n+1]) puis les noms en UTF-8 concaténés, complétés par des
+ *        zéros jusqu'à un multiple de 4 octets;
+ *      * offsets (int[n+1]) puis targets (int[2m]), les tableaux CSR du graphe (listes triées).
+ *  - read(path) projette le fichier en mémoire (FileChannel.map) et copie les tableaux en bloc.
+ *  - Seules les arêtes présentes sont écrites (un graphe dont on a supprimé des arêtes est compacté).
+ */
+public class GraphSnapshot {
+
+    private static final int MAGIC = 0x41474141; // "AAGA" read as a little-endian int
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+
+    /**
+     * Ecrit g dans path.
+     */
+    public static void write(CsrGraph g, String path) throws IOException {
+        int n = g.vertexCount();
+
+        // Names table
+        byte[][] names = new byte[n][];
+        int[] nameOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            names[v] = g.vertex(v).name().getBytes(StandardCharsets.UTF_8);
+            nameOffsets[v + 1] = nameOffsets[v] + names[v].length;
+        }
+        int nameBytes = nameOffsets[n];
+
+        // Present edges only
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[2 * g.edgeCount()];
+        for (int v = 0; v < n; v++) {
+            int k = offsets[v];
+            for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                if (!g.isRemoved(g.edgeAt(j))) targets[k++] = g.target(j);
+            }
+            offsets[v + 1] = k;
+        }
+
+        long size = HEADER_BYTES + 4L * (n + 1) + align(nameBytes) + 4L * (n + 1) + 4L * targets.length;
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, 1 << 20)).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(targets.length).putInt(nameBytes);
+            putInts(channel, buffer, nameOffsets);
+            for (byte[] name : names) {
+                for (int from = 0; from < name.length; ) {
+                    if (!buffer.hasRemaining()) flush(channel, buffer);
+                    int length = Math.min(buffer.remaining(), name.length - from);
+                    buffer.put(name, from, length);
+                    from += length;
+                }
+            }
+            for (int pad = nameBytes; pad % 4 != 0; pad++) {
+                if (!buffer.hasRemaining()) flush(channel, buffer);
+                buffer.put((byte) 0);
+            }
+            putInts(channel, buffer, offsets);
+            putInts(channel, buffer, targets);
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Vrai si path commence par l'en-tête d'un snapshot.
+     */
+    public static boolean isSnapshot(String path) throws IOException {
+        Path file = Paths.get(path);
+        if (!Files.isRegularFile(file) || Files.size(file) < HEADER_BYTES) return false;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            return header.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Charge le snapshot path (projection mémoire, copie des tableaux en bloc).
+     */
+    public static CsrGraph read(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large: " + path);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (size < HEADER_BYTES || map.getInt() != MAGIC) {
+                throw new IOException("Not a graph snapshot: " + path);
+            }
+            int version = map.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + path);
+            }
+            int n = map.getInt();
+            int slots = map.getInt();
+            int nameBytes = map.getInt();
+            long expected = HEADER_BYTES + 4L * (n + 1) + align(nameBytes) + 4L * (n + 1) + 4L * slots;
+            if (n < 0 || slots < 0 || nameBytes < 0 || expected != size) {
+                throw new IOException("Truncated or corrupted snapshot: " + path);
+            }
+
+            int[] nameOffsets = new int[n + 1];
+            map.asIntBuffer().get(nameOffsets);
+            map.position(map.position() + 4 * (n + 1));
+            byte[] nameTable = new byte[nameBytes];
+            map.get(nameTable);
+            map.position(map.position() + align(nameBytes) - nameBytes);
+
+            int[] offsets = new int[n + 1];
+            map.asIntBuffer().get(offsets);
+            map.position(map.position() + 4 * (n + 1));
+            int[] targets = new int[slots];
+            map.asIntBuffer().get(targets);
+
+            Vertex[] vertices = new Vertex[n];
+            for (int v = 0; v < n; v++) {
+                vertices[v] = new Vertex(v, new String(nameTable, nameOffsets[v], nameOffsets[v + 1] - nameOffsets[v],
+                        StandardCharsets.UTF_8));
+            }
+            return new CsrGraph(vertices, offsets, targets);
+        }
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 3) & ~3;
+    }
+
+    private static void putInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int value : values) {
+            if (buffer.remaining() < 4) flush(channel, buffer);
+            buffer.putInt(value);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
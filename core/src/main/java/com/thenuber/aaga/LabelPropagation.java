@@ -0,0 +1,373 @@
+package com.thenuber.aaga;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * LabelPropagation
+ * - Propagation d'étiquettes (Raghavan et al.): chaque sommet part de sa propre étiquette et prend
+ * l'étiquette la plus fréquente chez ses voisins, jusqu'à stabilité. O(m) par balayage.
+ * - Deux modes de mise à jour:
+ * * semi-synchrone (par défaut, Cordasco & Gargano): les sommets sont répartis en classes de couleur
+ * (coloration gloutonne, deux voisins n'ont jamais la même couleur). Les classes sont traitées l'une
+ * après l'autre et les sommets d'une classe en parallèle, sur les étiquettes courantes: équivalent à
+ * une mise à jour asynchrone, sans les oscillations du mode synchrone;
+ * * synchrone (setSynchronous(true)): tous les sommets sont mis à jour à partir des étiquettes du
+ * balayage précédent.
+ * - Frontière: seuls les sommets actifs (dont un voisin a changé d'étiquette depuis leur dernier
+ * calcul; tous au départ) sont recalculés. Ils sont gardés dans des listes explicites (une par classe
+ * de couleur en semi-synchrone), remplies par les voisins des sommets qui changent: un balayage coûte
+ * O(sommets actifs + degrés), pas O(n). Arrêt quand plus aucun sommet n'est actif, ou après
+ * setMaxSweeps(n) balayages.
+ * - Égalités: un sommet garde son étiquette si elle fait partie des plus fréquentes; sinon l'étiquette
+ * retenue est celle de plus petit hachage (graine, balayage, sommet, étiquette). Le résultat ne dépend
+ * que de la graine (setSeed), pas de setThreads(n).
+ * - Sortie: Dendrogram à deux niveaux: composantes connexes, puis communautés (qui les raffinent,
+ * une étiquette ne se propageant que le long des arêtes).
+ * - setTracing(true): trace par balayage (cf. RunTrace.LPA_PHASES), lue par getTrace(); la colonne
+ * components y reçoit le nombre de sommets qui ont changé d'étiquette.
+ * - setStopCriteria: sans effet (un seul niveau après les composantes); Main refuse donc -k,
+ * --stop-drop et --patience pour lpa.
+ */
+public class LabelPropagation implements GraphAlgorithm {
+
+    // Nombre de sommets traités séquentiellement par une tâche feuille
+    static final int VERTICES_PER_TASK = 256;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private boolean synchronous = false;
+    private int maxSweeps = 100;
+    private long seed = new SplittableRandom().nextLong();
+    private int threads = 1;
+    private ForkJoinPool pool;
+    private int sweeps = 0;
+
+    private boolean tracing = false;
+    private RunTrace trace;
+    private StopCriteria stopCriteria = new StopCriteria();
+    private SplitLog splitLog;
+
+    public LabelPropagation() { }
+
+    /**
+     * Mise à jour synchrone au lieu de semi-synchrone (false par défaut).
+     */
+    public void setSynchronous(boolean synchronous) { this.synchronous = synchronous; }
+
+    public boolean isSynchronous() { return synchronous; }
+
+    /**
+     * Nombre maximal de balayages (100 par défaut).
+     */
+    public void setMaxSweeps(int maxSweeps) {
+        if (maxSweeps < 1) {
+            throw new IllegalArgumentException("max sweeps must be at least 1");
+        }
+        this.maxSweeps = maxSweeps;
+    }
+
+    public int getMaxSweeps() { return maxSweeps; }
+
+    /**
+     * Graine du départage des égalités (aléatoire par défaut). Deux exécutions de même graine donnent le même résultat.
+     */
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public long getSeed() { return seed; }
+
+    /**
+     * Nombre de threads utilisés pour les mises à jour (1 par défaut).
+     * Le résultat ne dépend pas de cette valeur.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        if (pool != null && threads != this.threads) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() { return threads; }
+
+    protected ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Nombre de balayages du dernier run().
+     */
+    public int getSweeps() { return sweeps; }
+
+    public void setTracing(boolean tracing) { this.tracing = tracing; }
+
+    public RunTrace getTrace() { return trace; }
+
+    public void setStopCriteria(StopCriteria criteria) { this.stopCriteria = criteria; }
+
+    public StopCriteria getStopCriteria() { return stopCriteria; }
+
+    public void setSplitLog(SplitLog log) { this.splitLog = log; }
+
+    public SplitLog getSplitLog() { return splitLog; }
+
+    /**
+     * - Entrée: un graphe CsrGraph (non modifié; les arêtes supprimées sont ignorées).
+     * - Boucle: un balayage des sommets actifs par itération (cf. en-tête).
+     * - Sortie: Dendrogram (composantes connexes, puis communautés).
+     */
+    public Dendrogram run(CsrGraph g) {
+        int n = g.vertexCount();
+        trace = new RunTrace("lpa", RunTrace.LPA_PHASES, tracing);
+        sweeps = 0;
+
+        int[] labels = new int[n];
+        for (int v = 0; v < n; v++) labels[v] = v;
+        boolean[] moved = new boolean[n];
+
+        if (synchronous) {
+            int[] next = new int[n];
+            int[] frontier = new int[n];
+            for (int v = 0; v < n; v++) frontier[v] = v;
+            int size = n;
+            int[] nextFrontier = new int[n];
+            int[] queuedFor = new int[n]; // sweep + 1 for which a vertex is already in nextFrontier
+            while (sweeps < maxSweeps && size > 0) {
+                trace.beginIteration();
+                UpdateTask task = new UpdateTask(g, frontier, 0, size, sweeps, labels, next, moved);
+                pool().invoke(task);
+                sweeps++;
+
+                // Publish the new labels, then activate the neighbors of the vertices that moved
+                int nextSize = 0;
+                for (int k = 0; k < size; k++) {
+                    int v = frontier[k];
+                    if (moved[v]) labels[v] = next[v];
+                }
+                for (int k = 0; k < size; k++) {
+                    int v = frontier[k];
+                    if (!moved[v]) continue;
+                    moved[v] = false;
+                    for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                        if (g.isRemoved(g.edgeAt(j))) continue;
+                        int w = g.target(j);
+                        if (queuedFor[w] == sweeps) continue;
+                        queuedFor[w] = sweeps;
+                        nextFrontier[nextSize++] = w;
+                    }
+                }
+                int[] t = frontier;
+                frontier = nextFrontier;
+                nextFrontier = t;
+                size = nextSize;
+                trace.endPhase(RunTrace.PROPAGATION);
+                trace.endIteration(0, task.changed, 0);
+            }
+        } else {
+            // One worklist per color class, initially the whole class; a vertex is at most once in its list
+            int[] color = greedyColoring(g);
+            int colors = 0;
+            for (int c : color) colors = Math.max(colors, c + 1);
+            int[] classSize = new int[colors];
+            for (int v = 0; v < n; v++) classSize[color[v]]++;
+            int[][] pending = new int[colors][];
+            for (int c = 0; c < colors; c++) pending[c] = new int[classSize[c]];
+            int[] pendingCount = new int[colors];
+            for (int v = 0; v < n; v++) pending[color[v]][pendingCount[color[v]]++] = v;
+            boolean[] queued = new boolean[n];
+            Arrays.fill(queued, true);
+
+            int active = n;
+            while (sweeps < maxSweeps && active > 0) {
+                trace.beginIteration();
+                int changed = 0;
+                for (int c = 0; c < colors; c++) {
+                    int[] list = pending[c];
+                    int size = pendingCount[c];
+                    if (size == 0) continue;
+                    UpdateTask task = new UpdateTask(g, list, 0, size, sweeps, labels, labels, moved);
+                    pool().invoke(task);
+                    changed += task.changed;
+
+                    // Neighbors are of other colors: list is not appended to while it is drained
+                    pendingCount[c] = 0;
+                    active -= size;
+                    for (int k = 0; k < size; k++) {
+                        int v = list[k];
+                        queued[v] = false;
+                        if (!moved[v]) continue;
+                        moved[v] = false;
+                        for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                            if (g.isRemoved(g.edgeAt(j))) continue;
+                            int w = g.target(j);
+                            if (queued[w]) continue;
+                            queued[w] = true;
+                            pending[color[w]][pendingCount[color[w]]++] = w;
+                            active++;
+                        }
+                    }
+                }
+                sweeps++;
+                trace.endPhase(RunTrace.PROPAGATION);
+                trace.endIteration(0, changed, 0);
+            }
+        }
+
+        Dendrogram.Builder partitions = new Dendrogram.Builder(g, g.connectedComponents(), splitLog);
+        Louvain.renumber(labels);
+        partitions.endStep(labels);
+        return partitions.build();
+    }
+
+    /**
+     * Coloration gloutonne (ordre des sommets, plus petite couleur libre): au plus degré max + 1 couleurs.
+     */
+    static int[] greedyColoring(CsrGraph g) {
+        int n = g.vertexCount();
+        int[] color = new int[n];
+        Arrays.fill(color, -1);
+        int[] usedBy = new int[n + 1];
+        Arrays.fill(usedBy, -1);
+        for (int v = 0; v < n; v++) {
+            for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                if (g.isRemoved(g.edgeAt(j))) continue;
+                int c = color[g.target(j)];
+                if (c >= 0) usedBy[c] = v;
+            }
+            int c = 0;
+            while (usedBy[c] == v) c++;
+            color[v] = c;
+        }
+        return color;
+    }
+
+    /**
+     * UpdateTask
+     * - Recalcule les sommets actifs vertices[lo..hi): nouvelle étiquette lue dans labels, écrite dans
+     * next (le même tableau en mode semi-synchrone, où vertices est une classe de couleur).
+     * - moved[v] = true si v a changé d'étiquette: run() en déduit la frontière suivante après la tâche,
+     * ce qui garde les listes de sommets actifs sans écriture concurrente.
+     * - changed: nombre de sommets qui ont changé d'étiquette (somme des sous-tâches).
+     */
+    private class UpdateTask extends RecursiveAction {
+        private final CsrGraph g;
+        private final int[] vertices;
+        private final int lo;
+        private final int hi;
+        private final int sweep;
+        private final int[] labels;
+        private final int[] next;
+        private final boolean[] moved;
+        int changed;
+
+        UpdateTask(CsrGraph g, int[] vertices, int lo, int hi, int sweep, int[] labels, int[] next,
+                boolean[] moved) {
+            this.g = g;
+            this.vertices = vertices;
+            this.lo = lo;
+            this.hi = hi;
+            this.sweep = sweep;
+            this.labels = labels;
+            this.next = next;
+            this.moved = moved;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= VERTICES_PER_TASK) {
+                Scratch scratch = SCRATCH.get();
+                scratch.ensureCapacity(g.vertexCount());
+                for (int k = lo; k < hi; k++) {
+                    int v = vertices[k];
+                    next[v] = bestLabel(g, v, sweep, labels, scratch);
+                    if (!scratch.changed) continue;
+                    moved[v] = true;
+                    changed++;
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            UpdateTask left = new UpdateTask(g, vertices, lo, mid, sweep, labels, next, moved);
+            UpdateTask right = new UpdateTask(g, vertices, mid, hi, sweep, labels, next, moved);
+            invokeAll(left, right);
+            changed = left.changed + right.changed;
+        }
+    }
+
+    /**
+     * Étiquette la plus fréquente chez les voisins de v (celle de v en cas d'égalité avec elle, sinon
+     * celle de plus petit hachage). scratch.changed indique si elle diffère de labels[v].
+     */
+    private int bestLabel(CsrGraph g, int v, int sweep, int[] labels, Scratch scratch) {
+        int[] count = scratch.count;
+        int[] touched = scratch.touched;
+        int touchedCount = 0;
+        for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+            if (g.isRemoved(g.edgeAt(j))) continue;
+            int l = labels[g.target(j)];
+            if (count[l]++ == 0) touched[touchedCount++] = l;
+        }
+
+        int own = labels[v];
+        int max = 0;
+        for (int i = 0; i < touchedCount; i++) max = Math.max(max, count[touched[i]]);
+        int best = own;
+        if (max > 0 && count[own] < max) {
+            long bestHash = Long.MAX_VALUE;
+            for (int i = 0; i < touchedCount; i++) {
+                int l = touched[i];
+                if (count[l] != max) continue;
+                long h = hash(sweep, v, l);
+                if (h < bestHash || (h == bestHash && l < best)) {
+                    bestHash = h;
+                    best = l;
+                }
+            }
+        }
+
+        for (int i = 0; i < touchedCount; i++) count[touched[i]] = 0;
+        scratch.changed = best != own;
+        return best;
+    }
+
+    // Tie-break key of label l for vertex v at this sweep (SplitMix64 finalizer)
+    private long hash(int sweep, int v, int l) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) sweep << 32) ^ v) + 0xBF58476D1CE4E5B9L * l;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Scratch
+     * - Compteurs d'étiquettes voisines et liste des étiquettes touchées, un par thread, remis à zéro
+     * après chaque sommet (seules les entrées touchées).
+     */
+    private static class Scratch {
+        int[] count = new int[0];
+        int[] touched = new int[0];
+        boolean changed;
+
+        void ensureCapacity(int n) {
+            if (count.length < n) {
+                count = new int[n];
+                touched = new int[n];
+            }
+        }
+    }
+}
@@ -0,0 +1,647 @@
+package com.thenuber.aaga;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Louvain
+ * - Détection de communautés par optimisation gloutonne de la modularité (Blondel et al.), avec
+ * l'étape de raffinement de Leiden (Traag et al.): quelques balayages en O(m) par niveau, au lieu
+ * des O(m²n) de Girvan–Newman.
+ * - Un niveau:
+ * 1) Déplacement local: chaque noeud rejoint la communauté voisine de meilleur gain de modularité,
+ * jusqu'à ce qu'aucun déplacement n'améliore la partition P.
+ * 2) Raffinement (setRefine, actif par défaut): chaque communauté de P est redécoupée en
+ * sous-communautés R, en fusionnant des singletons bien connectés à leur communauté. Les
+ * communautés de R sont connexes, ce qui n'est pas garanti pour P.
+ * 3) Agrégation: chaque communauté de R (de P sans raffinement) devient un noeud pondéré du graphe
+ * suivant, qui part de la partition P.
+ * L'algorithme s'arrête quand le déplacement local laisse chaque noeud seul.
+ * - Graphes agrégés stockés en CSR sur des tableaux primitifs (cf. Level), poids entiers.
+ * - Sortie: Dendrogram des partitions d'agrégation successives, qui se raffinent l'une l'autre:
+ * niveau 0 = partition finale (la plus grossière), dernier niveau = agrégation du premier niveau.
+ * - Aléa: ordre de visite des noeuds, tiré d'un SplittableRandom initialisé par setSeed(seed).
+ * - Déplacement parallèle (setParallelMoves): balayages par blocs de MOVE_CHUNK noeuds, dont les
+ * meilleurs déplacements sont calculés en parallèle sur l'état du début du bloc, puis appliqués
+ * dans l'ordre. Pour une graine donnée, le résultat est identique quel que soit setThreads(n).
+ * - setTracing(true): trace par niveau (cf. RunTrace.LOUVAIN_PHASES), lue par getTrace().
+ * - setStopCriteria: le dendrogramme est lu du niveau 0 vers les niveaux fins et tronqué au premier
+ * niveau qui vérifie un critère (cf. StopCriteria).
+ */
+public class Louvain implements GraphAlgorithm {
+
+    // Nombre de noeuds dont les déplacements sont calculés sur un même état (mode parallèle)
+    static final int MOVE_CHUNK = 1024;
+
+    // Nombre de noeuds traités séquentiellement par une tâche feuille (mode parallèle)
+    static final int MOVES_PER_TASK = 64;
+
+    // Nombre maximal de balayages par niveau (mode parallèle)
+    static final int MAX_SWEEPS = 64;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private double resolution = 1.0;
+    private boolean refine = true;
+    private boolean parallelMoves = false;
+    private long seed = new SplittableRandom().nextLong();
+    private int threads = 1;
+    private ForkJoinPool pool;
+
+    private boolean tracing = false;
+    private RunTrace trace;
+    private StopCriteria stopCriteria = new StopCriteria();
+    private SplitLog splitLog;
+
+    public Louvain() { }
+
+    /**
+     * Résolution gamma de la modularité optimisée (1 par défaut: modularité de Newman).
+     */
+    public void setResolution(double resolution) {
+        if (!(resolution > 0)) {
+            throw new IllegalArgumentException("resolution must be positive");
+        }
+        this.resolution = resolution;
+    }
+
+    public double getResolution() { return resolution; }
+
+    /**
+     * Raffinement de Leiden avant chaque agrégation (actif par défaut; false: Louvain classique).
+     */
+    public void setRefine(boolean refine) { this.refine = refine; }
+
+    public boolean isRefine() { return refine; }
+
+    /**
+     * Déplacement local par blocs parallèles au lieu de la file séquentielle (désactivé par défaut).
+     */
+    public void setParallelMoves(boolean parallelMoves) { this.parallelMoves = parallelMoves; }
+
+    public boolean isParallelMoves() { return parallelMoves; }
+
+    /**
+     * Graine de l'ordre de visite (aléatoire par défaut). Deux exécutions de même graine donnent le même résultat.
+     */
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public long getSeed() { return seed; }
+
+    /**
+     * Nombre de threads du déplacement parallèle (1 par défaut).
+     * Le résultat ne dépend pas de cette valeur.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        if (pool != null && threads != this.threads) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() { return threads; }
+
+    protected ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    public void setTracing(boolean tracing) { this.tracing = tracing; }
+
+    public RunTrace getTrace() { return trace; }
+
+    public void setStopCriteria(StopCriteria criteria) { this.stopCriteria = criteria; }
+
+    public StopCriteria getStopCriteria() { return stopCriteria; }
+
+    public void setSplitLog(SplitLog log) { this.splitLog = log; }
+
+    public SplitLog getSplitLog() { return splitLog; }
+
+    /**
+     * - Entrée: un graphe CsrGraph (non modifié; les arêtes supprimées sont ignorées).
+     * - Boucle, un niveau par itération: déplacement local, raffinement, agrégation (cf. en-tête).
+     * - Sortie: Dendrogram des partitions d'agrégation, de la plus grossière à la plus fine.
+     */
+    public Dendrogram run(CsrGraph input) {
+        SplittableRandom random = new SplittableRandom(seed);
+        trace = new RunTrace("louvain", RunTrace.LOUVAIN_PHASES, tracing);
+
+        int n = input.vertexCount();
+        Level g = Level.of(input);
+
+        // Current node of every input vertex, and community of every node
+        int[] membership = new int[n];
+        int[] community = new int[n];
+        for (int v = 0; v < n; v++) {
+            membership[v] = v;
+            community[v] = v;
+        }
+
+        // Aggregation partitions of the input vertices, finest first
+        List<int[]> levels = new ArrayList<>();
+
+        while (g.totalWeight > 0) {
+            trace.beginIteration();
+
+            // 1. Local moving
+            int[] order = permutation(g.n, random);
+            if (parallelMoves) {
+                moveNodesParallel(g, community, order);
+            } else {
+                moveNodes(g, community, order);
+            }
+            int communities = renumber(community);
+            trace.endPhase(RunTrace.LOCAL_MOVING);
+
+            // Every node stayed alone: the partition can no longer be improved
+            if (communities == g.n) {
+                trace.endIteration(0, communities, 0);
+                break;
+            }
+
+            // 2. Refinement, unless it leaves every node alone (then aggregate the communities themselves)
+            int[] aggregate = community;
+            int count = communities;
+            if (refine) {
+                int[] refined = new int[g.n];
+                int r = refine(g, community, communities, order, refined);
+                if (r < g.n) {
+                    aggregate = refined;
+                    count = r;
+                }
+            }
+            trace.endPhase(RunTrace.REFINEMENT);
+
+            // 3. Aggregation: the next level starts from the communities found by local moving
+            for (int v = 0; v < n; v++) {
+                membership[v] = aggregate[membership[v]];
+            }
+            levels.add(membership.clone());
+            int[] next = new int[count];
+            for (int x = 0; x < g.n; x++) {
+                next[aggregate[x]] = community[x];
+            }
+            g = g.aggregate(aggregate, count);
+            community = next;
+            trace.endPhase(RunTrace.AGGREGATION);
+            trace.endIteration(0, communities, 0);
+        }
+
+        // No edge: every vertex is its own community
+        if (levels.isEmpty()) {
+            levels.add(membership.clone());
+        }
+
+        return dendrogram(input, levels);
+    }
+
+    /**
+     * Dendrogramme des niveaux (du plus fin au plus grossier dans levels), lu du plus grossier au
+     * plus fin et tronqué au premier niveau qui vérifie un critère d'arrêt. Seul le dendrogramme
+     * retenu est écrit dans getSplitLog().
+     */
+    private Dendrogram dendrogram(CsrGraph input, List<int[]> levels) {
+        int last = levels.size() - 1;
+        int steps = last;
+        if (stopCriteria.isEnabled()) {
+            Dendrogram full = build(input, levels, last, null);
+
+            // Replay the splits level by level until a criterion is met
+            StopCriteria.Monitor stop = stopCriteria.monitor(input, full.labels(0));
+            for (int level = 1; level < full.levelCount(); level++) {
+                for (int i = full.firstSplit(level); i < full.endSplit(level); i++) {
+                    int[] members = full.members(i);
+                    stop.split(full.parent(i), full.child(i), members, 0, members.length);
+                }
+                if (stop.endStep(full.communityCount(level))) {
+                    steps = level;
+                    break;
+                }
+            }
+            if (steps == last && splitLog == null) return full;
+        }
+        return build(input, levels, steps, splitLog);
+    }
+
+    // The coarsest level, then the next steps finer ones
+    private static Dendrogram build(CsrGraph input, List<int[]> levels, int steps, SplitLog log) {
+        int last = levels.size() - 1;
+        Dendrogram.Builder builder = new Dendrogram.Builder(input, levels.get(last), log);
+        for (int level = 1; level <= steps; level++) {
+            builder.endStep(levels.get(last - level));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Déplacement local séquentiel (file de Leiden): les noeuds sont visités dans l'ordre order, puis
+     * un voisin est remis en file quand un noeud le quitte pour une autre communauté. S'arrête quand
+     * la file est vide, c'est-à-dire quand plus aucun déplacement n'améliore la modularité.
+     */
+    private void moveNodes(Level g, int[] community, int[] order) {
+        long[] tot = new long[g.n];
+        for (int v = 0; v < g.n; v++) {
+            tot[community[v]] += g.strength[v];
+        }
+
+        int[] queue = new int[g.n];
+        boolean[] queued = new boolean[g.n];
+        int head = 0, size = g.n;
+        for (int k = 0; k < g.n; k++) {
+            queue[k] = order[k];
+            queued[order[k]] = true;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        scratch.ensureCapacity(g.n);
+        while (size > 0) {
+            int v = queue[head];
+            head = head + 1 == g.n ? 0 : head + 1;
+            size--;
+            queued[v] = false;
+
+            int from = community[v];
+            tot[from] -= g.strength[v];
+            int best = bestCommunity(g, v, community, tot, from, null, scratch);
+            tot[best] += g.strength[v];
+            if (best == from) continue;
+            community[v] = best;
+
+            // Neighbors outside the new community may now prefer it
+            for (int j = g.offsets[v]; j < g.offsets[v + 1]; j++) {
+                int u = g.targets[j];
+                if (!queued[u] && community[u] != best) {
+                    queued[u] = true;
+                    queue[(head + size) % g.n] = u;
+                    size++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Déplacement local parallèle: balayages de order par blocs de MOVE_CHUNK noeuds, jusqu'à un
+     * balayage sans déplacement (ou MAX_SWEEPS balayages).
+     * - Les déplacements d'un bloc sont calculés sur l'état du début du bloc (MoveTask), puis appliqués
+     * dans l'ordre du bloc: le résultat ne dépend pas du découpage en tâches.
+     * - Deux singletons pourraient s'échanger indéfiniment: un singleton ne rejoint un autre singleton
+     * que si son id est plus petit.
+     */
+    private void moveNodesParallel(Level g, int[] community, int[] order) {
+        long[] tot = new long[g.n];
+        int[] size = new int[g.n];
+        for (int v = 0; v < g.n; v++) {
+            tot[community[v]] += g.strength[v];
+            size[community[v]]++;
+        }
+
+        int[] target = new int[MOVE_CHUNK];
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            int moved = 0;
+            for (int start = 0; start < g.n; start += MOVE_CHUNK) {
+                int end = Math.min(g.n, start + MOVE_CHUNK);
+                pool().invoke(new MoveTask(g, community, tot, size, order, target, start, start, end));
+                for (int k = start; k < end; k++) {
+                    int v = order[k];
+                    int from = community[v];
+                    int to = target[k - start];
+                    if (to == from) continue;
+                    tot[from] -= g.strength[v];
+                    size[from]--;
+                    tot[to] += g.strength[v];
+                    size[to]++;
+                    community[v] = to;
+                    moved++;
+                }
+            }
+            if (moved == 0) break;
+        }
+    }
+
+    /**
+     * MoveTask
+     * - Calcule la communauté cible des noeuds order[lo..hi) sans modifier l'état partagé, et la range
+     * dans target[k - base]. Découpage récursif au milieu jusqu'à MOVES_PER_TASK noeuds.
+     */
+    private class MoveTask extends RecursiveAction {
+        private final Level g;
+        private final int[] community;
+        private final long[] tot;
+        private final int[] size;
+        private final int[] order;
+        private final int[] target;
+        private final int base;
+        private final int lo;
+        private final int hi;
+
+        MoveTask(Level g, int[] community, long[] tot, int[] size, int[] order, int[] target, int base, int lo, int hi) {
+            this.g = g;
+            this.community = community;
+            this.tot = tot;
+            this.size = size;
+            this.order = order;
+            this.target = target;
+            this.base = base;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= MOVES_PER_TASK) {
+                Scratch scratch = SCRATCH.get();
+                scratch.ensureCapacity(g.n);
+                for (int k = lo; k < hi; k++) {
+                    int v = order[k];
+                    target[k - base] = bestCommunity(g, v, community, tot, community[v], size, scratch);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MoveTask(g, community, tot, size, order, target, base, lo, mid),
+                    new MoveTask(g, community, tot, size, order, target, base, mid, hi));
+        }
+    }
+
+    /**
+     * Communauté voisine de v de meilleur gain de modularité, from si aucune ne fait mieux.
+     * - tot: somme des forces de chaque communauté; celle de from inclut v si size != null (mode
+     * parallèle, état non modifié), l'exclut sinon.
+     * - Gain de v dans c (à un facteur près): w(v, c) - gamma * k_v * tot(c) / 2m.
+     */
+    private int bestCommunity(Level g, int v, int[] community, long[] tot, int from, int[] size, Scratch scratch) {
+        long[] link = scratch.link;
+        int[] touched = scratch.touched;
+        int count = 0;
+        link[from] = 0;
+        touched[count++] = from;
+        for (int j = g.offsets[v]; j < g.offsets[v + 1]; j++) {
+            int c = community[g.targets[j]];
+            if (link[c] == 0 && c != from) touched[count++] = c;
+            link[c] += g.weights[j];
+        }
+
+        double k = g.strength[v];
+        double scale = resolution * k / g.totalWeight;
+        long fromTot = size == null ? tot[from] : tot[from] - g.strength[v];
+        boolean alone = size != null && size[from] == 1;
+        int best = from;
+        double bestGain = link[from] - scale * fromTot;
+        for (int i = 1; i < count; i++) {
+            int c = touched[i];
+            if (alone && size[c] == 1 && c > from) continue;
+            double gain = link[c] - scale * tot[c];
+            if (gain > bestGain) {
+                bestGain = gain;
+                best = c;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            link[touched[i]] = 0;
+        }
+        return best;
+    }
+
+    /**
+     * Raffinement de Leiden de la partition community (ids denses 0..communities-1).
+     * - Dans chaque communauté S, on part des singletons; chaque noeud v encore seul et bien connecté à S
+     * (w(v, S - v) >= gamma * k_v * (K_S - k_v) / 2m) rejoint la sous-communauté C de S de meilleur
+     * gain positif ou nul, parmi celles bien connectées à S (même test pour C).
+     * - Variante gloutonne (le tirage aléatoire de Leiden avec theta -> 0): le résultat ne dépend que
+     * de l'ordre order.
+     * - refined reçoit les sous-communautés (ids denses), renvoie leur nombre.
+     */
+    private int refine(Level g, int[] community, int communities, int[] order, int[] refined) {
+        long[] communityTot = new long[communities];
+        for (int v = 0; v < g.n; v++) {
+            communityTot[community[v]] += g.strength[v];
+        }
+
+        // Weight from each node to the rest of its community
+        long[] external = new long[g.n];
+        for (int v = 0; v < g.n; v++) {
+            for (int j = g.offsets[v]; j < g.offsets[v + 1]; j++) {
+                if (community[g.targets[j]] == community[v]) external[v] += g.weights[j];
+            }
+        }
+
+        // Sub-communities: total strength, weight to the rest of the community, size
+        long[] tot = new long[g.n];
+        long[] ext = external.clone();
+        int[] size = new int[g.n];
+        for (int v = 0; v < g.n; v++) {
+            refined[v] = v;
+            tot[v] = g.strength[v];
+            size[v] = 1;
+        }
+
+        double m2 = g.totalWeight;
+        Scratch scratch = SCRATCH.get();
+        scratch.ensureCapacity(g.n);
+        long[] link = scratch.link;
+        int[] touched = scratch.touched;
+        for (int v : order) {
+            if (size[refined[v]] != 1) continue;
+            int s = community[v];
+            long k = g.strength[v];
+            if (external[v] < resolution * k * (communityTot[s] - k) / m2) continue;
+
+            int count = 0;
+            for (int j = g.offsets[v]; j < g.offsets[v + 1]; j++) {
+                int u = g.targets[j];
+                if (community[u] != s) continue;
+                int c = refined[u];
+                if (link[c] == 0) touched[count++] = c;
+                link[c] += g.weights[j];
+            }
+
+            int best = -1;
+            double bestGain = 0.0;
+            for (int i = 0; i < count; i++) {
+                int c = touched[i];
+                if (ext[c] < resolution * tot[c] * (communityTot[s] - tot[c]) / m2) continue;
+                double gain = link[c] - resolution * k * tot[c] / m2;
+                if (gain >= bestGain) {
+                    bestGain = gain;
+                    best = c;
+                }
+            }
+            if (best >= 0) {
+                size[v]--;
+                refined[v] = best;
+                size[best]++;
+                tot[best] += k;
+                ext[best] += external[v] - 2 * link[best];
+            }
+
+            for (int i = 0; i < count; i++) {
+                link[touched[i]] = 0;
+            }
+        }
+        return renumber(refined);
+    }
+
+    /**
+     * Renumérote les ids de labels en ids denses 0..k-1 (ordre de première apparition), renvoie k.
+     */
+    static int renumber(int[] labels) {
+        int[] dense = new int[labels.length];
+        Arrays.fill(dense, -1);
+        int k = 0;
+        for (int v = 0; v < labels.length; v++) {
+            int l = labels[v];
+            if (dense[l] < 0) dense[l] = k++;
+            labels[v] = dense[l];
+        }
+        return k;
+    }
+
+    // Random permutation of 0..n-1 (Fisher–Yates)
+    private static int[] permutation(int n, SplittableRandom random) {
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) order[v] = v;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+
+    /**
+     * Scratch
+     * - Poids vers chaque communauté voisine et liste des communautés touchées, un par thread,
+     * remis à zéro après chaque noeud (seules les entrées touchées).
+     */
+    private static class Scratch {
+        long[] link = new long[0];
+        int[] touched = new int[0];
+
+        void ensureCapacity(int n) {
+            if (link.length < n) {
+                link = new long[n];
+                touched = new int[n];
+            }
+        }
+    }
+
+    /**
+     * Level
+     * - Graphe pondéré d'un niveau, au format CSR: voisins de v dans targets[offsets[v] .. offsets[v+1]),
+     * poids weights[j]. Pas de boucle dans l'adjacence: le poids interne d'un noeud est dans self[v].
+     * - strength[v]: degré pondéré (somme des poids incidents + 2 * self[v]), totalWeight = 2m.
+     */
+    static final class Level {
+        final int n;
+        final int[] offsets;
+        final int[] targets;
+        final long[] weights;
+        final long[] self;
+        final long[] strength;
+        final long totalWeight;
+
+        private Level(int n, int[] offsets, int[] targets, long[] weights, long[] self) {
+            this.n = n;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.self = self;
+            this.strength = new long[n];
+            long total = 0;
+            for (int v = 0; v < n; v++) {
+                long s = 2 * self[v];
+                for (int j = offsets[v]; j < offsets[v + 1]; j++) s += weights[j];
+                strength[v] = s;
+                total += s;
+            }
+            this.totalWeight = total;
+        }
+
+        /**
+         * Premier niveau: arêtes présentes de g, de poids 1.
+         */
+        static Level of(CsrGraph g) {
+            int n = g.vertexCount();
+            int[] offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) offsets[v + 1] = offsets[v] + g.degree(v);
+            int[] targets = new int[offsets[n]];
+            long[] weights = new long[offsets[n]];
+            int next = 0;
+            for (int v = 0; v < n; v++) {
+                for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                    if (g.isRemoved(g.edgeAt(j))) continue;
+                    targets[next] = g.target(j);
+                    weights[next++] = 1;
+                }
+            }
+            return new Level(n, offsets, targets, weights, new long[n]);
+        }
+
+        /**
+         * Graphe agrégé: un noeud par groupe (labels denses 0..count-1), poids des arêtes entre groupes
+         * sommés, arêtes internes reportées dans self.
+         */
+        Level aggregate(int[] labels, int count) {
+            // Group the nodes by label (counting sort)
+            int[] start = new int[count + 1];
+            for (int v = 0; v < n; v++) start[labels[v] + 1]++;
+            for (int c = 0; c < count; c++) start[c + 1] += start[c];
+            int[] cursor = Arrays.copyOf(start, count);
+            int[] grouped = new int[n];
+            for (int v = 0; v < n; v++) grouped[cursor[labels[v]]++] = v;
+
+            int[] newOffsets = new int[count + 1];
+            int[] newTargets = new int[targets.length];
+            long[] newWeights = new long[targets.length];
+            long[] newSelf = new long[count];
+            long[] link = new long[count];
+            int[] touched = new int[count];
+            int next = 0;
+            for (int c = 0; c < count; c++) {
+                int touchedCount = 0;
+                long internal = 0;
+                for (int k = start[c]; k < start[c + 1]; k++) {
+                    int v = grouped[k];
+                    newSelf[c] += self[v];
+                    for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                        int d = labels[targets[j]];
+                        if (d == c) {
+                            internal += weights[j];
+                        } else {
+                            if (link[d] == 0) touched[touchedCount++] = d;
+                            link[d] += weights[j];
+                        }
+                    }
+                }
+                // Internal edges are seen from both endpoints
+                newSelf[c] += internal / 2;
+                for (int i = 0; i < touchedCount; i++) {
+                    int d = touched[i];
+                    newTargets[next] = d;
+                    newWeights[next++] = link[d];
+                    link[d] = 0;
+                }
+                newOffsets[c + 1] = next;
+            }
+            return new Level(count, newOffsets, Arrays.copyOf(newTargets, next), Arrays.copyOf(newWeights, next), newSelf);
+        }
+    }
+}
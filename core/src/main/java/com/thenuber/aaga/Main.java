@@ -0,0 +1,448 @@
+package com.thenuber.aaga;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+public class Main {
+    private static void printHelp() {
+        System.out.println(
+                "Usage: java -jar aaga-projet.jar -i <input> [-d <delimiterRegex>] [-o <outPrefix>] [-a <alg>] [-t <threads>] [-s <seed>] [--epsilon <e>] [--delta <d>] [--c <c>] [--adaptive] [-S <snapshot>] [--trace jsonl|csv] [-k <communities>] [--stop-drop <q>] [--patience <n>] [--batch-k <k>] [--batch-fraction <f>] [--compare-exact] [--no-refine] [--parallel-moves] [--resolution <g>] [--sync] [--max-sweeps <n>] [--component-parallel] [--no-cache] [--cache-dir <dir>] [--cache-max-mb <mb>]");
+        System.out.println("   or: java -jar aaga-projet.jar --serve [--port <p>] [--workers <n>] [--cache-size <n>]");
+        System.out.println("  -i  input edge list file (two columns per line) or binary snapshot");
+        System.out.println("  -d  delimiter regex (default: \\t)");
+        System.out.println("  -o  output prefix (default: out)");
+        System.out.println("  -a  algorithm: gn | gnr | bsa | louvain | lpa (default: gn)");
+        System.out.println("  -t  worker threads for betweenness, louvain parallel moves or lpa updates (default: 1)");
+        System.out.println("  -s  random seed for bsa, louvain and lpa (default: random)");
+        System.out.println("  --epsilon, --delta, --c  bsa sample size parameters (default: 0.2, 0.3, 1.0)");
+        System.out.println("  -S  write the loaded graph as a binary snapshot (reload it with -i) and exit");
+        System.out.println("  --adaptive  bsa: sample each iteration until the top edge is identified (r is a cap)");
+        System.out.println("  -k  stop once k communities exist and write that partition (default: run to the end, write the best)");
+        System.out.println("  --stop-drop  stop once modularity is q below its running peak");
+        System.out.println("  --patience  stop once modularity has not improved for n iterations");
+        System.out.println("  --batch-k  gn/gnr/bsa: remove up to k edges per pass, at most one per component");
+        System.out.println("  --batch-fraction  gn/gnr/bsa: remove the best edge of every component within f * max of the max");
+        System.out.println("  --compare-exact  with a batch mode, also run without it and write both modularities to the metrics");
+        System.out.println("  --component-parallel  gn/gnr: run each connected component as its own task on -t threads (same result; sequential with -k, --stop-drop, --patience)");
+        System.out.println("  --no-refine  louvain: skip the Leiden refinement step (plain Louvain)");
+        System.out.println("  --parallel-moves  louvain: compute local moves in parallel blocks on -t threads");
+        System.out.println("  --resolution  louvain: modularity resolution gamma (default: 1.0)");
+        System.out.println("  --sync  lpa: synchronous updates (default: semi-synchronous, by color classes)");
+        System.out.println("  --max-sweeps  lpa: maximum number of sweeps (default: 100)");
+        System.out.println("  --trace  write per-iteration phase timings, removals, components, samples and allocation to <outPrefix>_trace.jsonl or .csv");
+        System.out.println("  --no-cache  always run, without reading or writing the result cache");
+        System.out.println("  --cache-dir, --cache-max-mb  result cache directory (default: ~/.cache/aaga) and size cap, least recently used first out (default: 256)");
+        System.out.println("  --serve  keep graphs loaded and answer run requests over HTTP on 127.0.0.1 (see AnalysisServer)");
+        System.out.println("  --port, --workers, --cache-size  server port (default: 8642), concurrent requests (default: cores), cached results (default: 64)");
+        System.out.println("  output: <outPrefix>_partition.txt (name, community), _metrics.txt, _modularity.txt, and _splits.bin (split log streamed during the run)");
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        // Parse args
+
+        Map<String, String> opts = parseArgs(args);
+        if (opts.containsKey("serve")) {
+            AnalysisServer server = new AnalysisServer(Integer.parseInt(opts.getOrDefault("port", "8642")),
+                    Integer.parseInt(opts.getOrDefault("workers", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                    Integer.parseInt(opts.getOrDefault("cache-size", "64")));
+            server.start();
+            System.out.println("Serving on http://127.0.0.1:" + server.port());
+            return;
+        }
+        if (!opts.containsKey("i")) {
+            printHelp();
+            return;
+        }
+
+        String inputFilePath = opts.get("i");
+        String delim = opts.getOrDefault("d", "\\t");
+        String outputFilePath = opts.getOrDefault("o", "out");
+        String algorithm = opts.getOrDefault("a", "gn");
+        int threads = Integer.parseInt(opts.getOrDefault("t", "1"));
+
+        GraphAlgorithm graphAlgorithm;
+        try {
+            graphAlgorithm = createAlgorithm(opts);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid options: " + e.getMessage());
+            return;
+        }
+        if (graphAlgorithm == null) {
+            System.out.println("Unknown algorithm: " + algorithm);
+            return;
+        }
+
+        String traceFormat = opts.get("trace");
+        if (traceFormat != null && !traceFormat.equals("jsonl") && !traceFormat.equals("csv")) {
+            System.out.println("Unknown trace format: " + traceFormat);
+            return;
+        }
+        graphAlgorithm.setTracing(traceFormat != null);
+
+        StopCriteria stop = graphAlgorithm.getStopCriteria();
+        BatchRemoval batch = batchRemoval(graphAlgorithm);
+
+
+        // Check that output directory exists
+
+        if (!opts.containsKey("S") && !checkDirectory(outputFilePath)) {
+            System.err.println("Warning: could not create directory for: " + outputFilePath);
+        }
+
+
+        // Restore an identical previous run from the result cache (not for traces, comparisons, unseeded runs)
+
+        ResultCache cache = null;
+        String cacheKey = null;
+        if (!opts.containsKey("no-cache") && !opts.containsKey("S") && traceFormat == null
+                && !opts.containsKey("compare-exact") && AnalysisServer.cacheable(opts)) {
+            cache = new ResultCache(opts.getOrDefault("cache-dir", System.getProperty("user.home") + "/.cache/aaga"),
+                    Long.parseLong(opts.getOrDefault("cache-max-mb", "256")) << 20);
+            cacheKey = ResultCache.key(inputFilePath, delim, opts);
+            if (cache.restore(cacheKey, outputFilePath)) {
+                System.out.println("Restored partition and metrics from cache to " + outputFilePath + "_* files");
+                return;
+            }
+        }
+
+        // Read input graph
+
+        long loadStart = System.nanoTime();
+        CsrGraph g = GraphLoader.loadCsr(inputFilePath, delim, threads);
+        System.out.printf("Loaded %d vertices, %d edges in %d ms%n", g.vertexCount(), g.edgeCount(),
+                (System.nanoTime() - loadStart) / 1_000_000);
+
+        // Binary snapshot only
+        if (opts.containsKey("S")) {
+            GraphSnapshot.write(g, opts.get("S"));
+            System.out.println("Wrote snapshot to " + opts.get("S"));
+            return;
+        }
+
+
+        // Run algorithm, streaming its splits to <outPrefix>_splits.bin
+
+        long startTime;
+        long endTime;
+        Dendrogram parts;
+        try (SplitLog splitLog = new SplitLog(outputFilePath + "_splits.bin")) {
+            graphAlgorithm.setSplitLog(splitLog);
+            startTime = System.nanoTime();
+            parts = graphAlgorithm.run(g);
+            endTime = System.nanoTime();
+        }
+        graphAlgorithm.setSplitLog(null);
+
+        // choose the partition with highest modularity (with -k, the one reached when the run stopped)
+        double[] curve = modularityCurve(g, parts);
+        int bestLevel = selectedLevel(curve, stop);
+        double bestQ = curve[bestLevel];
+        int[] partition = parts.labels(bestLevel);
+        double modularity = bestQ;
+
+        // Write results
+
+        // Create output files
+
+        String partitionFilePath = outputFilePath + "_partition.txt";
+        String metricsFilePath = outputFilePath + "_metrics.txt";
+        String curveFilePath = outputFilePath + "_modularity.txt";
+
+        java.io.File metricsFile = new java.io.File(metricsFilePath);
+        java.io.File curveFile = new java.io.File(curveFilePath);
+
+
+        // Write output
+
+        writePartition(g, partition, partitionFilePath);
+        try (FileWriter fw = new FileWriter(metricsFile)) {
+            fw.write("modularity\t" + modularity + "\n");
+            fw.write("communities\t" + parts.communityCount(bestLevel) + "\n");
+            fw.write("iterations\t" + (parts.levelCount() - 1) + "\n");
+        }
+        try (FileWriter fw = new FileWriter(curveFile)) {
+            fw.write("level\tcommunities\tmodularity\n");
+            for (int level = 0; level < curve.length; level++)
+                fw.write(level + "\t" + parts.communityCount(level) + "\t" + curve[level] + "\n");
+        }
+
+        List<String> produced = new ArrayList<>(List.of("_partition.txt", "_metrics.txt", "_modularity.txt", "_splits.bin"));
+
+        // Samples drawn by each BSA iteration
+        if (graphAlgorithm instanceof BetweennessSamplingAlgo) {
+            produced.add("_samples.txt");
+            int[] samples = ((BetweennessSamplingAlgo) graphAlgorithm).getSamplesPerIteration();
+            long total = 0;
+            try (FileWriter fw = new FileWriter(outputFilePath + "_samples.txt")) {
+                fw.write("iteration\tsamples\n");
+                for (int it = 0; it < samples.length; it++) {
+                    fw.write((it + 1) + "\t" + samples[it] + "\n");
+                    total += samples[it];
+                }
+            }
+            try (FileWriter fw = new FileWriter(metricsFile, true)) {
+                fw.write("samples\t" + total + "\n");
+            }
+        }
+
+        // Per-iteration trace
+        if (traceFormat != null) {
+            RunTrace trace = graphAlgorithm.getTrace();
+            if (traceFormat.equals("jsonl")) {
+                trace.writeJsonl(outputFilePath + "_trace.jsonl");
+            } else {
+                trace.writeCsv(outputFilePath + "_trace.csv");
+            }
+        }
+
+        System.out.println("Wrote partition and metrics to " + outputFilePath + "_* files");
+        if (cache != null) cache.store(cacheKey, outputFilePath, produced);
+
+
+        // Write elapsed time
+
+        long elapsedNs = endTime - startTime;
+        double elapsedSec = elapsedNs / 1_000_000_000.0;
+        System.out.printf("Execution time: %.3f s (%d ms)%n", elapsedSec, elapsedNs / 1_000_000);
+
+        // Same run without batch removal, for comparison (same seed and stopping criteria)
+        if (batch.isEnabled() && opts.containsKey("compare-exact")) {
+            if (graphAlgorithm instanceof GirvanNewman) {
+                ((GirvanNewman) graphAlgorithm).setBatchRemoval(new BatchRemoval());
+            } else if (graphAlgorithm instanceof BetweennessSamplingAlgo) {
+                ((BetweennessSamplingAlgo) graphAlgorithm).setBatchRemoval(new BatchRemoval());
+            }
+            graphAlgorithm.setTracing(false);
+            long exactStart = System.nanoTime();
+            Dendrogram exact = graphAlgorithm.run(g);
+            long exactNs = System.nanoTime() - exactStart;
+            double[] exactCurve = modularityCurve(g, exact);
+            double exactQ = exactCurve[selectedLevel(exactCurve, stop)];
+            try (FileWriter fw = new FileWriter(metricsFile, true)) {
+                fw.write("time_ms\t" + elapsedNs / 1_000_000 + "\n");
+                fw.write("exact_modularity\t" + exactQ + "\n");
+                fw.write("exact_iterations\t" + (exact.levelCount() - 1) + "\n");
+                fw.write("exact_time_ms\t" + exactNs / 1_000_000 + "\n");
+            }
+            System.out.printf("Batch: modularity %.6f in %d iterations (%d ms), exact: %.6f in %d iterations (%d ms)%n",
+                    modularity, parts.levelCount() - 1, elapsedNs / 1_000_000,
+                    exactQ, exact.levelCount() - 1, exactNs / 1_000_000);
+        }
+
+    }
+
+    /**
+     * Algorithme décrit par les options (mêmes clés que parseArgs: a, t, s, epsilon, ...), avec ses
+     * critères d'arrêt et son mode par lots; null si l'algorithme est inconnu.
+     * IllegalArgumentException pour une option invalide ou sans effet sur l'algorithme.
+     */
+    static GraphAlgorithm createAlgorithm(Map<String, String> opts) {
+        String algorithm = opts.getOrDefault("a", "gn");
+        int threads = Integer.parseInt(opts.getOrDefault("t", "1"));
+        GraphAlgorithm graphAlgorithm;
+
+        if (algorithm.equals("gn")) {
+            GirvanNewman gn = new GirvanNewman();
+            gn.setThreads(threads);
+            gn.setComponentParallel(opts.containsKey("component-parallel"));
+            graphAlgorithm = gn;
+        } else if (algorithm.equals("gnr")) {
+            GirvanNewmanRevised gnr = new GirvanNewmanRevised();
+            gnr.setThreads(threads);
+            gnr.setComponentParallel(opts.containsKey("component-parallel"));
+            graphAlgorithm = gnr;
+        } else if (algorithm.equals("bsa")) {
+            BetweennessSamplingAlgo bsa = new BetweennessSamplingAlgo();
+            bsa.setThreads(threads);
+            if (opts.containsKey("s")) bsa.setSeed(Long.parseLong(opts.get("s")));
+            if (opts.containsKey("epsilon")) bsa.setEpsilon(Double.parseDouble(opts.get("epsilon")));
+            if (opts.containsKey("delta")) bsa.setDelta(Double.parseDouble(opts.get("delta")));
+            if (opts.containsKey("c")) bsa.setC(Double.parseDouble(opts.get("c")));
+            bsa.setAdaptive(opts.containsKey("adaptive"));
+            graphAlgorithm = bsa;
+        } else if (algorithm.equals("louvain")) {
+            Louvain louvain = new Louvain();
+            louvain.setThreads(threads);
+            if (opts.containsKey("s")) louvain.setSeed(Long.parseLong(opts.get("s")));
+            if (opts.containsKey("resolution")) louvain.setResolution(Double.parseDouble(opts.get("resolution")));
+            louvain.setRefine(!opts.containsKey("no-refine"));
+            louvain.setParallelMoves(opts.containsKey("parallel-moves"));
+            graphAlgorithm = louvain;
+        } else if (algorithm.equals("lpa")) {
+            LabelPropagation lpa = new LabelPropagation();
+            lpa.setThreads(threads);
+            if (opts.containsKey("s")) lpa.setSeed(Long.parseLong(opts.get("s")));
+            if (opts.containsKey("max-sweeps")) lpa.setMaxSweeps(Integer.parseInt(opts.get("max-sweeps")));
+            lpa.setSynchronous(opts.containsKey("sync"));
+            graphAlgorithm = lpa;
+        } else {
+            return null;
+        }
+
+        // LPA has a single level after the components: a stop criterion would be silently ignored
+        if (graphAlgorithm instanceof LabelPropagation
+                && (opts.containsKey("k") || opts.containsKey("stop-drop") || opts.containsKey("patience"))) {
+            throw new IllegalArgumentException("lpa does not support -k, --stop-drop or --patience");
+        }
+
+        StopCriteria stop = new StopCriteria();
+        if (opts.containsKey("k")) stop.setCommunities(Integer.parseInt(opts.get("k")));
+        if (opts.containsKey("stop-drop")) stop.setModularityDrop(Double.parseDouble(opts.get("stop-drop")));
+        if (opts.containsKey("patience")) stop.setPatience(Integer.parseInt(opts.get("patience")));
+        graphAlgorithm.setStopCriteria(stop);
+
+        BatchRemoval batch = new BatchRemoval();
+        if (opts.containsKey("batch-k")) batch.setTopK(Integer.parseInt(opts.get("batch-k")));
+        if (opts.containsKey("batch-fraction")) batch.setFraction(Double.parseDouble(opts.get("batch-fraction")));
+        if (batch.isEnabled()) {
+            if (graphAlgorithm instanceof GirvanNewman) {
+                ((GirvanNewman) graphAlgorithm).setBatchRemoval(batch);
+            } else if (graphAlgorithm instanceof BetweennessSamplingAlgo) {
+                ((BetweennessSamplingAlgo) graphAlgorithm).setBatchRemoval(batch);
+            }
+        }
+        return graphAlgorithm;
+    }
+
+    // Batch removal of the algorithm (disabled for the algorithms without one)
+    private static BatchRemoval batchRemoval(GraphAlgorithm graphAlgorithm) {
+        if (graphAlgorithm instanceof GirvanNewman) return ((GirvanNewman) graphAlgorithm).getBatchRemoval();
+        if (graphAlgorithm instanceof BetweennessSamplingAlgo) return ((BetweennessSamplingAlgo) graphAlgorithm).getBatchRemoval();
+        return new BatchRemoval();
+    }
+
+    /**
+     * Modularité de chaque niveau de parts: le niveau 0 est évalué en O(m), les suivants en rejouant
+     * leurs scissions sur un ModularityTracker, ce qui donne toute la courbe en une passe.
+     */
+    static double[] modularityCurve(CsrGraph g, Dendrogram parts) {
+        double[] curve = new double[parts.levelCount()];
+        ModularityTracker tracker = new ModularityTracker(g, parts.labels(0));
+        for (int level = 0; level < parts.levelCount(); level++) {
+            if (level > 0) {
+                for (int i = parts.firstSplit(level); i < parts.endSplit(level); i++) {
+                    int[] members = parts.members(i);
+                    tracker.split(parts.parent(i), parts.child(i), members, 0, members.length);
+                }
+            }
+            curve[level] = tracker.modularity();
+        }
+        return curve;
+    }
+
+    /**
+     * Partition écrite en TSV (nom du sommet, communauté), une ligne par sommet, par un tampon NIO.
+     */
+    private static void writePartition(CsrGraph g, int[] partition, String path) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+            for (int v = 0; v < partition.length; v++) {
+                out.write(g.vertex(v).name());
+                out.write('\t');
+                out.write(Integer.toString(partition[v]));
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Niveau retenu: le premier de modularité maximale, ou avec un nombre de communautés cible
+     * (stop.getCommunities() > 0) le dernier, celui où l'exécution s'est arrêtée.
+     */
+    static int selectedLevel(double[] curve, StopCriteria stop) {
+        return stop.getCommunities() > 0 ? curve.length - 1 : bestLevel(curve);
+    }
+
+    // First level of highest modularity
+    private static int bestLevel(double[] curve) {
+        int best = 0;
+        for (int level = 1; level < curve.length; level++) {
+            if (curve[level] > curve[best]) best = level;
+        }
+        return best;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if (a.equals("-i") && i + 1 < args.length)
+                m.put("i", args[++i]);
+            else if (a.equals("-d") && i + 1 < args.length)
+                m.put("d", args[++i]);
+            else if (a.equals("-o") && i + 1 < args.length)
+                m.put("o", args[++i]);
+            else if (a.equals("-a") && i + 1 < args.length)
+                m.put("a", args[++i]);
+            else if (a.equals("-t") && i + 1 < args.length)
+                m.put("t", args[++i]);
+            else if (a.equals("-s") && i + 1 < args.length)
+                m.put("s", args[++i]);
+            else if (a.equals("-S") && i + 1 < args.length)
+                m.put("S", args[++i]);
+            else if (a.equals("--epsilon") && i + 1 < args.length)
+                m.put("epsilon", args[++i]);
+            else if (a.equals("--delta") && i + 1 < args.length)
+                m.put("delta", args[++i]);
+            else if (a.equals("--c") && i + 1 < args.length)
+                m.put("c", args[++i]);
+            else if (a.equals("-k") && i + 1 < args.length)
+                m.put("k", args[++i]);
+            else if (a.equals("--stop-drop") && i + 1 < args.length)
+                m.put("stop-drop", args[++i]);
+            else if (a.equals("--patience") && i + 1 < args.length)
+                m.put("patience", args[++i]);
+            else if (a.equals("--batch-k") && i + 1 < args.length)
+                m.put("batch-k", args[++i]);
+            else if (a.equals("--batch-fraction") && i + 1 < args.length)
+                m.put("batch-fraction", args[++i]);
+            else if (a.equals("--compare-exact"))
+                m.put("compare-exact", "true");
+            else if (a.equals("--trace") && i + 1 < args.length)
+                m.put("trace", args[++i]);
+            else if (a.equals("--adaptive"))
+                m.put("adaptive", "true");
+            else if (a.equals("--component-parallel"))
+                m.put("component-parallel", "true");
+            else if (a.equals("--no-refine"))
+                m.put("no-refine", "true");
+            else if (a.equals("--parallel-moves"))
+                m.put("parallel-moves", "true");
+            else if (a.equals("--resolution") && i + 1 < args.length)
+                m.put("resolution", args[++i]);
+            else if (a.equals("--no-cache"))
+                m.put("no-cache", "true");
+            else if (a.equals("--cache-dir") && i + 1 < args.length)
+                m.put("cache-dir", args[++i]);
+            else if (a.equals("--cache-max-mb") && i + 1 < args.length)
+                m.put("cache-max-mb", args[++i]);
+            else if (a.equals("--serve"))
+                m.put("serve", "true");
+            else if (a.equals("--port") && i + 1 < args.length)
+                m.put("port", args[++i]);
+            else if (a.equals("--workers") && i + 1 < args.length)
+                m.put("workers", args[++i]);
+            else if (a.equals("--cache-size") && i + 1 < args.length)
+                m.put("cache-size", args[++i]);
+            else if (a.equals("--sync"))
+                m.put("sync", "true");
+            else if (a.equals("--max-sweeps") && i + 1 < args.length)
+                m.put("max-sweeps", args[++i]);
+        }
+        return m;
+    }
+
+    private static boolean checkDirectory(String filepath) {
+        java.io.File outputDirectory = new java.io.File(filepath).getParentFile();
+        boolean ok = outputDirectory != null && outputDirectory.exists();
+        if (!ok) {
+            ok = outputDirectory.mkdirs();
+        }
+        return ok && outputDirectory != null && outputDirectory.exists();
+    }
+}
@@ -0,0 +1,73 @@
+package com.thenuber.aaga;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class Modularity {
+    // Compute modularity Q for a partition given as map vertex->community id
+    // Q = sum over communities c of [ L_c / m - (D_c / 2m)^2 ], with L_c the number of
+    // edges inside c and D_c the sum of the degrees of c: O(n + m) instead of a pair loop.
+    public static double compute(SimpleGraph g, Map<Vertex, Integer> partition) {
+        double m = g.edgeCount();
+        if (m == 0) return 0.0;
+
+        Map<Integer, double[]> communities = new HashMap<>(); // community -> {L_c, D_c}
+        for (Vertex i : g.vertices()) {
+            double[] c = communities.computeIfAbsent(partition.get(i), k -> new double[2]);
+            c[1] += g.degree(i);
+            for (Vertex j : g.neighbors(i)) {
+                if (i.compareTo(j) < 0 && partition.get(i).equals(partition.get(j))) c[0]++;
+            }
+        }
+
+        double q = 0.0;
+        for (double[] c : communities.values()) {
+            q += term(c[0], c[1], m);
+        }
+        return q;
+    }
+
+    // Same computation on a CSR graph, partition given as community id (>= 0) per vertex index
+    public static double compute(CsrGraph g, int[] partition) {
+        double m = g.edgeCount();
+        if (m == 0) return 0.0;
+
+        int n = g.vertexCount();
+        int communities = 0;
+        for (int v = 0; v < n; v++) {
+            communities = Math.max(communities, partition[v] + 1);
+        }
+        long[] intra = new long[communities];
+        long[] degrees = new long[communities];
+        for (int v = 0; v < n; v++) {
+            degrees[partition[v]] += g.degree(v);
+        }
+        for (int e = 0; e < g.edgeIdCount(); e++) {
+            if (g.isRemoved(e)) continue;
+            int c = partition[g.edgeSource(e)];
+            if (c == partition[g.edgeTarget(e)]) intra[c]++;
+        }
+
+        double q = 0.0;
+        for (int c = 0; c < communities; c++) {
+            q += term(intra[c], degrees[c], m);
+        }
+        return q;
+    }
+
+    public static double compute(CsrGraph g, Map<Vertex, Integer> partition) {
+        // Renumber the community ids densely before using them as array indices
+        Map<Integer, Integer> dense = new HashMap<>();
+        int[] labels = new int[g.vertexCount()];
+        for (int v = 0; v < labels.length; v++) {
+            labels[v] = dense.computeIfAbsent(partition.get(g.vertex(v)), k -> dense.size());
+        }
+        return compute(g, labels);
+    }
+
+    // Contribution of one community with `intra` inner edges and degree sum `degrees`
+    static double term(double intra, double degrees, double m) {
+        double a = degrees / (2.0 * m);
+        return intra / m - a * a;
+    }
+}
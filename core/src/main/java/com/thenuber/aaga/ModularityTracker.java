@@ -0,0 +1,113 @@
+package com.thenuber.aaga;
+
+import java.util.Arrays;
+
+/**
+ * ModularityTracker
+ *  - Modularité d'une partition qui ne fait que se raffiner (une communauté se scinde en deux),
+ *    mesurée sur un graphe de référence fixe (le graphe d'entrée, sans suppression).
+ *  - Pour chaque communauté c on garde L_c (arêtes internes) et D_c (somme des degrés):
+ *    Q = somme des [ L_c / m - (D_c / 2m)^2 ].
+ *  - split(c, c', B): les sommets B quittent c pour la nouvelle communauté c'. Seuls les voisins des
+ *    sommets de B sont parcourus: coût O(vol(B)), quasi constant quand B est le plus petit côté.
+ */
+public class ModularityTracker {
+    private final CsrGraph g;
+    private final double m;
+    private final int[] community;
+    private long[] intra = new long[0];
+    private long[] degrees = new long[0];
+    private int communities = 0;
+    private double q;
+
+    /**
+     * g: graphe de référence, initialLabels: communauté (>= 0) de chaque sommet.
+     */
+    public ModularityTracker(CsrGraph g, int[] initialLabels) {
+        this.g = g;
+        this.m = g.edgeCount();
+        this.community = initialLabels.clone();
+
+        for (int v = 0; v < community.length; v++) {
+            ensureCommunity(community[v]);
+            degrees[community[v]] += g.degree(v);
+        }
+        for (int e = 0; e < g.edgeIdCount(); e++) {
+            if (g.isRemoved(e)) continue;
+            int c = community[g.edgeSource(e)];
+            if (c == community[g.edgeTarget(e)]) intra[c]++;
+        }
+        recompute();
+    }
+
+    /**
+     * Modularité de la partition courante.
+     */
+    public double modularity() { return q; }
+
+    /**
+     * Nombre d'ids de communautés utilisés (ids denses 0..n-1 dans la partition initiale).
+     */
+    public int communityCount() { return communities; }
+
+    /**
+     * Communauté courante de v.
+     */
+    public int community(int v) { return community[v]; }
+
+    /**
+     * Les sommets vertices[from..to) quittent la communauté parent pour la communauté child (nouvelle ou vide).
+     */
+    public double split(int parent, int child, int[] vertices, int from, int to) {
+        if (m == 0) return q;
+        ensureCommunity(child);
+        q -= term(parent) + term(child);
+
+        for (int k = from; k < to; k++) {
+            community[vertices[k]] = child;
+        }
+
+        long degreesB = 0;
+        long twiceIntraB = 0;
+        long cut = 0;
+        for (int k = from; k < to; k++) {
+            int v = vertices[k];
+            degreesB += g.degree(v);
+            for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                if (g.isRemoved(g.edgeAt(j))) continue;
+                int c = community[g.target(j)];
+                if (c == child) twiceIntraB++;
+                else if (c == parent) cut++;
+            }
+        }
+
+        intra[parent] -= twiceIntraB / 2 + cut;
+        degrees[parent] -= degreesB;
+        intra[child] += twiceIntraB / 2;
+        degrees[child] += degreesB;
+
+        q += term(parent) + term(child);
+        return q;
+    }
+
+    private double term(int c) {
+        return Modularity.term(intra[c], degrees[c], m);
+    }
+
+    private void recompute() {
+        q = 0.0;
+        if (m == 0) return;
+        for (int c = 0; c < communities; c++) {
+            q += term(c);
+        }
+    }
+
+    private void ensureCommunity(int c) {
+        if (c >= intra.length) {
+            int size = Math.max(c + 1, 2 * intra.length);
+            intra = Arrays.copyOf(intra, size);
+            degrees = Arrays.copyOf(degrees, size);
+        }
+        communities = Math.max(communities, c + 1);
+    }
+}
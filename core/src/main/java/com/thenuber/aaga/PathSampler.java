@@ -0,0 +1,177 @@
+package com.thenuber.aaga;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * PathSampler
+ *  - Tire uniformément un plus court chemin entre deux sommets par un BFS bidirectionnel équilibré.
+ *  - Deux BFS par niveaux, l'un depuis s, l'autre depuis t. On étend toujours le côté dont la frontière
+ *    a le plus petit volume (somme des degrés), niveau par niveau.
+ *  - Dès qu'un niveau découvre des sommets déjà atteints par l'autre côté, on s'arrête: ces sommets w
+ *    ("sommets de rencontre") forment exactement la couche des plus courts chemins située à
+ *    distance dist_s(w) de s, et sigma_st = somme des sigma_s(w) * sigma_t(w).
+ *  - Tirage: w avec probabilité sigma_s(w) * sigma_t(w) / sigma_st, puis remontée de w vers s et de w
+ *    vers t (prédécesseur v choisi avec probabilité sigma(v) / sigma(w) de chaque côté). Chaque plus
+ *    court chemin a donc probabilité 1 / sigma_st.
+ *  - Coût: volume des deux boules explorées au lieu de toute la composante de s.
+ *  - Un sampler par thread (get(g)), sans remise à zéro en O(V) entre deux tirages (cf. BrandesWorkspace).
+ */
+public class PathSampler {
+    private static final ThreadLocal<PathSampler> SAMPLERS = ThreadLocal.withInitial(PathSampler::new);
+
+    // Un côté du BFS bidirectionnel
+    private static final class Side {
+        int[] visit = new int[0]; // visit[v] == mark si v a été atteint par ce côté
+        int[] distances = new int[0];
+        long[] sigma = new long[0];
+        int[] queue = new int[0]; // sommets atteints, par niveaux; frontière = queue[head..tail)
+        int head;
+        int tail;
+        long work; // volume de la frontière
+
+        void ensureCapacity(int n) {
+            if (visit.length < n) {
+                visit = new int[n];
+                distances = new int[n];
+                sigma = new long[n];
+                queue = new int[n];
+            }
+        }
+
+        void start(CsrGraph g, int root, int mark) {
+            visit[root] = mark;
+            distances[root] = 0;
+            sigma[root] = 1;
+            queue[0] = root;
+            head = 0;
+            tail = 1;
+            work = g.degree(root);
+        }
+    }
+
+    private final Side forward = new Side();
+    private final Side backward = new Side();
+    private int[] meet = new int[0];
+    private int mark = 0;
+    private long lastWork = 0;
+
+    /**
+     * Sampler du thread courant, dimensionné pour g.
+     */
+    public static PathSampler get(CsrGraph g) {
+        PathSampler sampler = SAMPLERS.get();
+        sampler.ensureCapacity(g.vertexCount());
+        return sampler;
+    }
+
+    private void ensureCapacity(int n) {
+        if (meet.length < n) {
+            forward.ensureCapacity(n);
+            backward.ensureCapacity(n);
+            meet = new int[n];
+            mark = 0;
+        }
+    }
+
+    /**
+     * Tire uniformément un plus court chemin de s à t.
+     * Ecrit les ids des arêtes (de t vers s) dans path, renvoie leur nombre (0 si s == t ou si t est
+     * inaccessible depuis s).
+     */
+    public int randomShortestPath(CsrGraph g, int s, int t, SplittableRandom rng, int[] path) {
+        lastWork = 0;
+        if (s == t) return 0;
+        if (++mark == Integer.MAX_VALUE) {
+            Arrays.fill(forward.visit, 0);
+            Arrays.fill(backward.visit, 0);
+            mark = 1;
+        }
+        forward.start(g, s, mark);
+        backward.start(g, t, mark);
+
+        // Grow the side with the smaller frontier volume, one level at a time, until both sides meet
+        Side grown = null;
+        int meetCount = 0;
+        while (meetCount == 0) {
+            grown = forward.work <= backward.work ? forward : backward;
+            Side other = grown == forward ? backward : forward;
+            if (grown.head == grown.tail) return 0; // component of s exhausted: t is unreachable
+
+            int levelEnd = grown.tail;
+            long work = 0;
+            while (grown.head < levelEnd) {
+                int v = grown.queue[grown.head++];
+                int dv = grown.distances[v] + 1;
+                lastWork += g.endSlot(v) - g.firstSlot(v);
+                for (int j = g.firstSlot(v), end = g.endSlot(v); j < end; j++) {
+                    if (g.isRemoved(g.edgeAt(j))) continue;
+                    int w = g.target(j);
+                    if (grown.visit[w] != mark) {
+                        grown.visit[w] = mark;
+                        grown.distances[w] = dv;
+                        grown.sigma[w] = 0;
+                        grown.queue[grown.tail++] = w;
+                        work += g.degree(w);
+                        if (other.visit[w] == mark) meet[meetCount++] = w;
+                    }
+                    if (grown.distances[w] == dv) {
+                        grown.sigma[w] += grown.sigma[v];
+                    }
+                }
+            }
+            grown.work = work;
+        }
+
+        // Meeting vertex w with probability sigma_s(w) * sigma_t(w) / sigma_st
+        double total = 0.0;
+        for (int k = 0; k < meetCount; k++) {
+            int w = meet[k];
+            total += (double) forward.sigma[w] * (double) backward.sigma[w];
+        }
+        double winner = rng.nextDouble() * total;
+        int w = meet[meetCount - 1];
+        double tickets = 0.0;
+        for (int k = 0; k < meetCount; k++) {
+            tickets += (double) forward.sigma[meet[k]] * (double) backward.sigma[meet[k]];
+            if (tickets > winner) {
+                w = meet[k];
+                break;
+            }
+        }
+
+        // Path from t to s: the w..t half is written backwards in front of the w..s half
+        int toTarget = backward.distances[w];
+        int toSource = forward.distances[w];
+        walk(g, backward, w, rng, path, toTarget - 1, -1);
+        walk(g, forward, w, rng, path, toTarget, 1);
+        return toTarget + toSource;
+    }
+
+    // Goes down from w to the root of side, writing the edge ids at path[at], path[at + step], ...
+    private void walk(CsrGraph g, Side side, int w, SplittableRandom rng, int[] path, int at, int step) {
+        while (side.distances[w] > 0) {
+            int d = side.distances[w] - 1;
+            long winner = rng.nextLong(side.sigma[w]);
+            long tickets = 0;
+            for (int j = g.firstSlot(w), end = g.endSlot(w); j < end; j++) {
+                int e = g.edgeAt(j);
+                if (g.isRemoved(e)) continue;
+                int v = g.target(j);
+                if (side.visit[v] != mark || side.distances[v] != d) continue;
+                tickets += side.sigma[v];
+                if (tickets > winner) {
+                    path[at] = e;
+                    at += step;
+                    w = v;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Nombre de slots d'adjacence parcourus par le dernier tirage (hors remontée du chemin).
+     */
+    public long lastWork() { return lastWork; }
+}
@@ -0,0 +1,214 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * ResultCache
+ *  - Cache sur disque des fichiers de sortie de Main, adressé par contenu: une entrée est un dossier
+ *    nommé par la clé (key), qui contient les fichiers OUTPUTS écrits par une exécution et leur
+ *    liste (MANIFEST).
+ *  - Clé = SHA-256 du fichier d'entrée, du délimiteur et des options de l'exécution (celles de
+ *    AnalysisServer.RUN_OPTIONS, hors -t et --component-parallel): un fichier modifié ou une autre
+ *    graine donne une autre clé.
+ *  - LRU borné à maxBytes: restore() remet l'entrée lue à la date courante, store() supprime les
+ *    entrées les plus anciennes jusqu'à repasser sous la borne.
+ *  - Plusieurs processus peuvent partager le dossier: une entrée est écrite dans un dossier temporaire
+ *    puis renommée, et une entrée supprimée pendant sa lecture est traitée comme absente. restore()
+ *    n'écrit les sorties qu'une fois toute l'entrée copiée: elles viennent toutes du cache, ou aucune.
+ */
+public class ResultCache {
+
+    // Output files of a run, as suffixes of the output prefix (_samples.txt only for bsa)
+    static final List<String> OUTPUTS =
+            List.of("_partition.txt", "_metrics.txt", "_modularity.txt", "_samples.txt", "_splits.bin");
+
+    // Suffixes stored in an entry, one per line
+    static final String MANIFEST = "manifest";
+
+    // Bumped when the outputs change, so that older entries are no longer hit
+    static final int VERSION = 2;
+
+    private final Path dir;
+    private final long maxBytes;
+
+    /**
+     * Cache dans le dossier dir (créé au besoin), d'au plus maxBytes octets.
+     */
+    public ResultCache(String dir, long maxBytes) throws IOException {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("cache size must be non-negative");
+        }
+        this.dir = Files.createDirectories(Paths.get(dir));
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Clé de l'exécution de opts (clés de Main.parseArgs) sur le fichier input lu avec delimiter.
+     */
+    static String key(String input, String delimiter, Map<String, String> opts) throws IOException {
+        Map<String, String> run = new TreeMap<>();
+        for (Map.Entry<String, String> e : opts.entrySet()) {
+            if (AnalysisServer.RUN_OPTIONS.contains(e.getKey())) run.put(e.getKey(), e.getValue());
+        }
+        run.put("d", delimiter);
+        return AnalysisServer.resultKey("v" + VERSION + ":" + fileHash(input), run);
+    }
+
+    /**
+     * Copie les fichiers de l'entrée key vers outPrefix + suffixe et supprime les autres sorties
+     * outPrefix + OUTPUTS (d'une exécution précédente); faux, sans rien modifier, si l'entrée est
+     * absente ou incomplète.
+     */
+    public boolean restore(String key, String outPrefix) throws IOException {
+        Path entry = dir.resolve(key);
+        List<String> stored;
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            stored = Files.readAllLines(entry.resolve(MANIFEST));
+        } catch (NoSuchFileException e) {
+            // Not cached, or evicted by another process
+            return false;
+        }
+        if (!OUTPUTS.containsAll(stored)) return false;
+
+        // Copy everything next to the outputs first, so that a partial entry leaves them untouched
+        List<Path> copies = new ArrayList<>();
+        try {
+            for (String suffix : stored) {
+                Path copy = Paths.get(outPrefix + suffix + ".tmp");
+                copies.add(copy);
+                Files.copy(entry.resolve(suffix.substring(1)), copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (NoSuchFileException e) {
+            // Evicted by another process while being read
+            for (Path copy : copies) Files.deleteIfExists(copy);
+            return false;
+        }
+        for (int k = 0; k < stored.size(); k++) {
+            Files.move(copies.get(k), Paths.get(outPrefix + stored.get(k)), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        for (String suffix : OUTPUTS) {
+            if (!stored.contains(suffix)) Files.deleteIfExists(Paths.get(outPrefix + suffix));
+        }
+        return true;
+    }
+
+    /**
+     * Enregistre sous key les fichiers outPrefix + suffixe des suffixes produced (parmi OUTPUTS),
+     * puis applique la borne de taille.
+     */
+    public void store(String key, String outPrefix, List<String> produced) throws IOException {
+        if (!OUTPUTS.containsAll(produced)) {
+            throw new IllegalArgumentException("not a cached output: " + produced);
+        }
+        Path tmp = Files.createTempDirectory(dir, key + ".tmp");
+        for (String suffix : produced) {
+            Files.copy(Paths.get(outPrefix + suffix), tmp.resolve(suffix.substring(1)));
+        }
+        Files.write(tmp.resolve(MANIFEST), produced);
+        Path entry = dir.resolve(key);
+        try {
+            Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileSystemException e) {
+            // Already stored, possibly by another process: same key, same content
+            delete(tmp);
+            if (!Files.isDirectory(entry)) throw e;
+        }
+        evict(key);
+    }
+
+    /**
+     * Taille totale des entrées, en octets.
+     */
+    public long size() throws IOException {
+        long total = 0;
+        for (Path entry : entries()) total += size(entry);
+        return total;
+    }
+
+    // Removes the least recently used entries other than kept until the cache fits in maxBytes
+    private void evict(String kept) throws IOException {
+        List<Path> entries = entries();
+        long[] sizes = new long[entries.size()];
+        FileTime[] times = new FileTime[entries.size()];
+        long total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            sizes[i] = size(entries.get(i));
+            times[i] = lastModified(entries.get(i));
+            total += sizes[i];
+        }
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparing((Integer i) -> times[i]));
+        for (int k = 0; k < order.length && total > maxBytes; k++) {
+            Path entry = entries.get(order[k]);
+            if (entry.getFileName().toString().equals(kept)) continue;
+            delete(entry);
+            total -= sizes[order[k]];
+        }
+    }
+
+    // Complete entries (temporary directories of stores in progress are skipped)
+    private List<Path> entries() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> list = Files.list(dir)) {
+            list.filter(p -> Files.isDirectory(p) && !p.getFileName().toString().contains(".tmp"))
+                    .forEach(entries::add);
+        }
+        return entries;
+    }
+
+    private static FileTime lastModified(Path entry) {
+        try {
+            return Files.getLastModifiedTime(entry);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long size(Path entry) throws IOException {
+        long total = 0;
+        try (Stream<Path> files = Files.list(entry)) {
+            for (Path file : (Iterable<Path>) files::iterator) total += Files.size(file);
+        } catch (NoSuchFileException e) {
+            // Evicted by another process
+        }
+        return total;
+    }
+
+    private static void delete(Path entry) throws IOException {
+        try (Stream<Path> files = Files.list(entry)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        Files.deleteIfExists(entry);
+    }
+
+    // SHA-256 of the bytes of a file
+    private static String fileHash(String path) throws IOException {
+        MessageDigest digest = AnalysisServer.sha256();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            for (int read; (read = in.read(buffer)) > 0; ) digest.update(buffer, 0, read);
+        }
+        return AnalysisServer.hex(digest.digest());
+    }
+}
@@ -0,0 +1,302 @@
+package com.thenuber.aaga;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * RunTrace
+ *  - Instrumentation d'une exécution, itération par itération: durée de chaque phase, arêtes
+ *    supprimées, nombre de composantes, chemins tirés (BSA) et octets alloués.
+ *  - Deux sorties:
+ *      * événements JFR (com.thenuber.aaga.Iteration et com.thenuber.aaga.Phase), émis seulement
+ *        quand un enregistrement Flight Recorder les active (java -XX:StartFlightRecording ...);
+ *      * enregistrement en mémoire (recording = true), écrit ensuite par writeJsonl / writeCsv.
+ *  - Désactivé (ni enregistrement ni JFR), le coût se limite à un test par appel: aucune mesure
+ *    d'horloge ni d'allocation n'est faite.
+ *  - Allocation: somme des octets alloués par tous les threads vivants (ThreadMXBean), donc
+ *    workers du ForkJoinPool compris; -1 si la JVM ne le mesure pas.
+ *
+ * Utilisation dans une boucle d'algorithme:
+ *   trace.beginIteration();
+ *   ... phase 0 ...; trace.endPhase(0);
+ *   ... phase 1 ...; trace.endPhase(1);
+ *   trace.endIteration(edgesRemoved, components, samples);
+ */
+public class RunTrace {
+
+    // Phases of the divisive algorithms (GirvanNewman, GirvanNewmanRevised, BetweennessSamplingAlgo):
+    // betweenness, max scan, edge removal with the incremental component update (ComponentTracker),
+    // split logging (Dendrogram.Builder)
+    public static final int BETWEENNESS = 0;
+    public static final int MAX_SCAN = 1;
+    public static final int REMOVAL = 2;
+    public static final int PARTITION = 3;
+    public static final String[] DIVISIVE_PHASES = { "betweenness", "max_scan", "removal", "partition" };
+
+    // Phases of a Louvain level: local moving, Leiden refinement, aggregation
+    public static final int LOCAL_MOVING = 0;
+    public static final int REFINEMENT = 1;
+    public static final int AGGREGATION = 2;
+    public static final String[] LOUVAIN_PHASES = { "local_moving", "refinement", "aggregation" };
+
+    // Single phase of a label propagation sweep
+    public static final int PROPAGATION = 0;
+    public static final String[] LPA_PHASES = { "propagation" };
+
+    private static final EventType ITERATION_TYPE = EventType.getEventType(IterationEvent.class);
+    private static final EventType PHASE_TYPE = EventType.getEventType(PhaseEvent.class);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final String algorithm;
+    private final String[] phases;
+    private final boolean recording;
+
+    // Current iteration
+    private boolean active;
+    private boolean jfr;
+    private int iteration;
+    private long phaseStart;
+    private long allocationStart;
+    private final long[] currentNanos;
+    private IterationEvent iterationEvent;
+    private PhaseEvent phaseEvent;
+
+    // Recorded iterations (recording only)
+    private int count;
+    private long[] phaseNanos = new long[0];
+    private int[] edgesRemoved = new int[0];
+    private int[] components = new int[0];
+    private long[] samples = new long[0];
+    private long[] allocated = new long[0];
+
+    /**
+     * Trace de l'algorithme nommé algorithm, dont les itérations ont les phases données.
+     * Avec recording = false, seuls les événements JFR sont émis (si activés).
+     */
+    public RunTrace(String algorithm, String[] phases, boolean recording) {
+        this.algorithm = algorithm;
+        this.phases = phases.clone();
+        this.recording = recording;
+        this.currentNanos = new long[phases.length];
+    }
+
+    public String algorithm() { return algorithm; }
+
+    public boolean isRecording() { return recording; }
+
+    /**
+     * Début d'une itération (et de sa première phase).
+     */
+    public void beginIteration() {
+        iteration++;
+        jfr = ITERATION_TYPE.isEnabled() || PHASE_TYPE.isEnabled();
+        active = recording || jfr;
+        if (!active) return;
+
+        Arrays.fill(currentNanos, 0L);
+        allocationStart = allocatedBytes();
+        if (jfr) {
+            iterationEvent = new IterationEvent();
+            iterationEvent.begin();
+            phaseEvent = new PhaseEvent();
+            phaseEvent.begin();
+        }
+        phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Fin de la phase phase (la suivante commence aussitôt). Une phase peut être terminée plusieurs
+     * fois dans une itération: ses durées s'additionnent.
+     */
+    public void endPhase(int phase) {
+        if (!active) return;
+        long now = System.nanoTime();
+        currentNanos[phase] += now - phaseStart;
+        phaseStart = now;
+        if (jfr) {
+            phaseEvent.end();
+            if (phaseEvent.shouldCommit()) {
+                phaseEvent.algorithm = algorithm;
+                phaseEvent.iteration = iteration;
+                phaseEvent.phase = phases[phase];
+                phaseEvent.commit();
+            }
+            phaseEvent = new PhaseEvent();
+            phaseEvent.begin();
+        }
+    }
+
+    /**
+     * Fin de l'itération: edgesRemoved arêtes supprimées, components composantes (ou communautés)
+     * après l'itération, samples chemins tirés (0 hors BSA).
+     */
+    public void endIteration(int edgesRemoved, int components, long samples) {
+        if (!active) return;
+        long allocation = allocationStart < 0 ? -1 : allocatedBytes() - allocationStart;
+        if (jfr) {
+            iterationEvent.end();
+            if (iterationEvent.shouldCommit()) {
+                iterationEvent.algorithm = algorithm;
+                iterationEvent.iteration = iteration;
+                iterationEvent.edgesRemoved = edgesRemoved;
+                iterationEvent.components = components;
+                iterationEvent.samples = samples;
+                iterationEvent.allocated = allocation;
+                iterationEvent.commit();
+            }
+            iterationEvent = null;
+            phaseEvent = null;
+        }
+        if (recording) {
+            if (count == this.edgesRemoved.length) {
+                int length = Math.max(16, 2 * count);
+                this.phaseNanos = Arrays.copyOf(this.phaseNanos, length * phases.length);
+                this.edgesRemoved = Arrays.copyOf(this.edgesRemoved, length);
+                this.components = Arrays.copyOf(this.components, length);
+                this.samples = Arrays.copyOf(this.samples, length);
+                this.allocated = Arrays.copyOf(this.allocated, length);
+            }
+            System.arraycopy(currentNanos, 0, this.phaseNanos, count * phases.length, phases.length);
+            this.edgesRemoved[count] = edgesRemoved;
+            this.components[count] = components;
+            this.samples[count] = samples;
+            this.allocated[count] = allocation;
+            count++;
+        }
+        active = false;
+    }
+
+    /**
+     * Nombre d'itérations commencées (enregistrées ou non).
+     */
+    public int iteration() { return iteration; }
+
+    /**
+     * Nombre d'itérations enregistrées.
+     */
+    public int iterationCount() { return count; }
+
+    public int phaseCount() { return phases.length; }
+
+    public String phaseName(int phase) { return phases[phase]; }
+
+    public long phaseNanos(int iteration, int phase) { return phaseNanos[iteration * phases.length + phase]; }
+
+    public int edgesRemoved(int iteration) { return edgesRemoved[iteration]; }
+
+    public int components(int iteration) { return components[iteration]; }
+
+    public long samples(int iteration) { return samples[iteration]; }
+
+    public long allocatedBytes(int iteration) { return allocated[iteration]; }
+
+    /**
+     * Une ligne JSON par itération (numérotées à partir de 1).
+     */
+    public void writeJsonl(String path) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(path))) {
+            StringBuilder line = new StringBuilder();
+            for (int it = 0; it < count; it++) {
+                line.setLength(0);
+                line.append("{\"algorithm\":\"").append(algorithm).append("\",\"iteration\":").append(it + 1);
+                for (int p = 0; p < phases.length; p++) {
+                    line.append(",\"").append(phases[p]).append("_ns\":").append(phaseNanos(it, p));
+                }
+                line.append(",\"edges_removed\":").append(edgesRemoved[it])
+                        .append(",\"components\":").append(components[it])
+                        .append(",\"samples\":").append(samples[it])
+                        .append(",\"allocated_bytes\":").append(allocated[it])
+                        .append("}\n");
+                out.write(line.toString());
+            }
+        }
+    }
+
+    /**
+     * Même contenu que writeJsonl, en CSV avec une ligne d'en-tête.
+     */
+    public void writeCsv(String path) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(path))) {
+            StringBuilder line = new StringBuilder("iteration");
+            for (String phase : phases) line.append(',').append(phase).append("_ns");
+            line.append(",edges_removed,components,samples,allocated_bytes\n");
+            out.write(line.toString());
+            for (int it = 0; it < count; it++) {
+                line.setLength(0);
+                line.append(it + 1);
+                for (int p = 0; p < phases.length; p++) line.append(',').append(phaseNanos(it, p));
+                line.append(',').append(edgesRemoved[it])
+                        .append(',').append(components[it])
+                        .append(',').append(samples[it])
+                        .append(',').append(allocated[it])
+                        .append('\n');
+                out.write(line.toString());
+            }
+        }
+    }
+
+    // Bytes allocated so far by all live threads, -1 if unsupported
+    private static long allocatedBytes() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) return -1;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) return -1;
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    @Name("com.thenuber.aaga.Iteration")
+    @Label("Iteration")
+    @Category("AAGA")
+    @Description("One iteration of a community detection algorithm")
+    static class IterationEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Iteration")
+        int iteration;
+
+        @Label("Edges Removed")
+        int edgesRemoved;
+
+        @Label("Components")
+        int components;
+
+        @Label("Samples")
+        long samples;
+
+        @Label("Allocated")
+        @DataAmount
+        long allocated;
+    }
+
+    @Name("com.thenuber.aaga.Phase")
+    @Label("Phase")
+    @Category("AAGA")
+    @Description("One phase of an iteration (betweenness, max scan, removal, partition...)")
+    static class PhaseEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+
+        @Label("Iteration")
+        int iteration;
+
+        @Label("Phase")
+        String phase;
+    }
+}
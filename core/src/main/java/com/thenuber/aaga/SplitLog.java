@@ -0,0 +1,173 @@
+package com.thenuber.aaga;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * SplitLog
+ *  - Journal de scissions d'un Dendrogram écrit sur disque au fil de l'exécution: le Dendrogram.Builder
+ *    auquel il est passé y recopie la partition initiale, chaque scission et chaque fin d'étape.
+ *  - Tous les entiers sont en little-endian:
+ *      * en-tête: "AAGS", version (int), n (int), puis la partition initiale (int[n]);
+ *      * une scission: parent (>= 0), child, taille s, puis les s sommets déplacés;
+ *      * une fin d'étape: -1.
+ *  - Écriture par un tampon de BUFFER_BYTES vidé dans un FileChannel quand il est plein et à chaque fin
+ *    d'étape: si le processus est tué, le fichier contient toutes les étapes terminées.
+ *  - read(g, path) reconstruit le Dendrogram des étapes terminées (une étape incomplète en fin de
+ *    fichier est ignorée).
+ */
+public class SplitLog implements Closeable {
+
+    private static final int MAGIC = 0x53474141; // "AAGS" read as a little-endian int
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int END_STEP = -1;
+    static final int BUFFER_BYTES = 1 << 16;
+
+    private final String path;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel channel;
+
+    /**
+     * Journal écrit dans path (le fichier est créé, ou vidé, au début de chaque exécution).
+     */
+    public SplitLog(String path) {
+        this.path = path;
+    }
+
+    public String path() { return path; }
+
+    /**
+     * Début d'une exécution: partition initiale (ids denses 0..k-1).
+     */
+    public void begin(int[] initialLabels) {
+        try {
+            if (channel != null) channel.close();
+            buffer.clear();
+            channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(initialLabels.length);
+            putInts(initialLabels, 0, initialLabels.length);
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Même scission que Dendrogram.Builder.split.
+     */
+    public void split(int parent, int child, int[] vertices, int from, int to) {
+        try {
+            if (buffer.remaining() < 12) flush();
+            buffer.putInt(parent).putInt(child).putInt(to - from);
+            putInts(vertices, from, to);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fin de l'étape courante: le tampon est écrit dans le fichier.
+     */
+    public void endStep() {
+        try {
+            if (buffer.remaining() < 4) flush();
+            buffer.putInt(END_STEP);
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        flush();
+        channel.close();
+        channel = null;
+    }
+
+    /**
+     * Dendrogram des étapes terminées du journal path, sur le graphe g (celui de l'exécution).
+     */
+    public static Dendrogram read(CsrGraph g, String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Split log too large: " + path);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (size < HEADER_BYTES || map.getInt() != MAGIC) {
+                throw new IOException("Not a split log: " + path);
+            }
+            int version = map.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported split log version " + version + ": " + path);
+            }
+            int n = map.getInt();
+            if (n != g.vertexCount() || size < HEADER_BYTES + 4L * n) {
+                throw new IOException("Split log does not match the graph: " + path);
+            }
+            int[] initialLabels = new int[n];
+            map.asIntBuffer().get(initialLabels);
+            map.position(map.position() + 4 * n);
+
+            // Records of the current step, applied once its end marker has been read
+            Dendrogram.Builder builder = new Dendrogram.Builder(g, initialLabels);
+            int[] pending = new int[16];
+            int pendingCount = 0;
+            int[] members = new int[0];
+            while (map.remaining() >= 4) {
+                int parent = map.getInt();
+                if (parent == END_STEP) {
+                    int resume = map.position();
+                    for (int k = 0; k < pendingCount; k++) {
+                        map.position(pending[k]);
+                        int p = map.getInt();
+                        int child = map.getInt();
+                        int s = map.getInt();
+                        if (members.length < s) members = new int[s];
+                        map.asIntBuffer().get(members, 0, s);
+                        builder.split(p, child, members, 0, s);
+                    }
+                    map.position(resume);
+                    pendingCount = 0;
+                    builder.endStep();
+                    continue;
+                }
+                if (map.remaining() < 8) break;
+                int start = map.position() - 4;
+                map.getInt();
+                int s = map.getInt();
+                if (s < 0 || map.remaining() < 4L * s) break;
+                map.position(map.position() + 4 * s);
+                if (pendingCount == pending.length) pending = Arrays.copyOf(pending, 2 * pendingCount);
+                pending[pendingCount++] = start;
+            }
+            return builder.build();
+        }
+    }
+
+    private void putInts(int[] values, int from, int to) throws IOException {
+        for (int k = from; k < to; k++) {
+            if (buffer.remaining() < 4) flush();
+            buffer.putInt(values[k]);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,122 @@
+package com.thenuber.aaga;
+
+/**
+ * StopCriteria
+ *  - Critères d'arrêt anticipé des algorithmes divisifs (par défaut aucun: exécution jusqu'au graphe
+ *    sans arêtes). L'exécution s'arrête à la fin de la première étape qui vérifie l'un d'eux:
+ *      * setModularityDrop(d): la modularité est descendue d'au moins d sous son maximum courant;
+ *      * setPatience(n): la modularité n'a pas dépassé son maximum depuis n étapes;
+ *      * setCommunities(k): il y a au moins k communautés.
+ *  - La modularité est suivie au fil des scissions par un ModularityTracker (coût O(vol) du côté
+ *    détaché par scission), et seulement si un critère de modularité est actif.
+ *  - monitor(graph, labels) crée le suivi d'une exécution: l'algorithme lui transmet chaque scission
+ *    (split) et lui demande à chaque fin d'étape s'il faut s'arrêter (endStep).
+ */
+public class StopCriteria {
+
+    private double modularityDrop = Double.POSITIVE_INFINITY;
+    private int patience = 0;
+    private int communities = 0;
+
+    public StopCriteria() { }
+
+    /**
+     * Arrêt dès que la modularité est au moins drop sous son maximum courant (drop > 0).
+     */
+    public void setModularityDrop(double drop) {
+        if (!(drop > 0)) {
+            throw new IllegalArgumentException("modularity drop must be positive");
+        }
+        this.modularityDrop = drop;
+    }
+
+    public double getModularityDrop() { return modularityDrop; }
+
+    /**
+     * Arrêt après n étapes consécutives sans amélioration du maximum de modularité (0: désactivé).
+     */
+    public void setPatience(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("patience must be non-negative");
+        }
+        this.patience = n;
+    }
+
+    public int getPatience() { return patience; }
+
+    /**
+     * Arrêt dès que k communautés existent (0: désactivé).
+     */
+    public void setCommunities(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("community count must be non-negative");
+        }
+        this.communities = k;
+    }
+
+    public int getCommunities() { return communities; }
+
+    /**
+     * Vrai si au moins un critère est actif.
+     */
+    public boolean isEnabled() {
+        return tracksModularity() || communities > 0;
+    }
+
+    private boolean tracksModularity() {
+        return modularityDrop != Double.POSITIVE_INFINITY || patience > 0;
+    }
+
+    /**
+     * Suivi d'une exécution sur graph (graphe de référence de la modularité), partant de la
+     * partition initialLabels.
+     */
+    public Monitor monitor(CsrGraph graph, int[] initialLabels) {
+        return new Monitor(graph, initialLabels);
+    }
+
+    /**
+     * Monitor
+     *  - État d'une exécution: modularité courante (ModularityTracker), maximum et nombre d'étapes
+     *    depuis le dernier maximum.
+     */
+    public class Monitor {
+        private final ModularityTracker tracker;
+        private double peak;
+        private int sinceImprovement = 0;
+
+        private Monitor(CsrGraph graph, int[] initialLabels) {
+            this.tracker = tracksModularity() ? new ModularityTracker(graph, initialLabels) : null;
+            this.peak = tracker == null ? 0.0 : tracker.modularity();
+        }
+
+        /**
+         * Même scission que Dendrogram.Builder.split.
+         */
+        public void split(int parent, int child, int[] vertices, int from, int to) {
+            if (tracker != null) tracker.split(parent, child, vertices, from, to);
+        }
+
+        /**
+         * Fin d'une étape, communityCount communautés: vrai s'il faut s'arrêter.
+         */
+        public boolean endStep(int communityCount) {
+            if (communities > 0 && communityCount >= communities) return true;
+            if (tracker == null) return false;
+
+            double q = tracker.modularity();
+            if (q > peak) {
+                peak = q;
+                sinceImprovement = 0;
+            } else {
+                sinceImprovement++;
+            }
+            return peak - q >= modularityDrop || (patience > 0 && sinceImprovement >= patience);
+        }
+
+        /**
+         * Maximum de modularité observé (0 si la modularité n'est pas suivie).
+         */
+        public double peak() { return peak; }
+    }
+}
@@ -0,0 +1,168 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnalysisServerTest {
+
+    @TempDir
+    Path dir;
+
+    private AnalysisServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = new AnalysisServer(0, 4, 2);
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    private HttpResponse<String> request(String method, String pathAndQuery) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + pathAndQuery))
+                .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String field(String json, String name) {
+        Matcher m = Pattern.compile("\"" + name + "\":\"?([^\",}]*)").matcher(json);
+        assertTrue(m.find(), json);
+        return m.group(1);
+    }
+
+    // Two triangles joined by an edge, written as a tab separated edge list
+    private String load(String name) throws Exception {
+        Path file = dir.resolve(name);
+        Files.write(file, List.of("a\tb", "b\tc", "c\ta", "c\td", "d\te", "e\tf", "f\td"));
+        HttpResponse<String> r = request("POST", "/graphs?path=" + URLEncoder.encode(file.toString(), StandardCharsets.UTF_8));
+        assertEquals(200, r.statusCode(), r.body());
+        return field(r.body(), "graph");
+    }
+
+    @Test
+    public void testRunIsCachedByGraphContentAndOptions() throws Exception {
+        String graph = load("g1.txt");
+        assertEquals(graph, load("g2.txt")); // same content, same graph
+
+        HttpResponse<String> first = request("POST", "/run?graph=" + graph + "&a=gn");
+        assertEquals(200, first.statusCode(), first.body());
+        assertEquals("false", field(first.body(), "cached"));
+        assertEquals("2", field(first.body(), "communities"));
+
+        // Thread count does not change the key
+        HttpResponse<String> second = request("POST", "/run?graph=" + graph + "&a=gn&t=2");
+        assertEquals("true", field(second.body(), "cached"));
+        assertEquals(field(first.body(), "key"), field(second.body(), "key"));
+
+        HttpResponse<String> partition = request("GET", "/partition?key=" + field(first.body(), "key"));
+        assertEquals(200, partition.statusCode());
+        Map<String, String> labels = new TreeMap<>();
+        for (String line : partition.body().split("\n")) {
+            String[] cols = line.split("\t");
+            labels.put(cols[0], cols[1]);
+        }
+        assertEquals(labels.get("a"), labels.get("c"));
+        assertNotEquals(labels.get("a"), labels.get("d"));
+    }
+
+    @Test
+    public void testFlagsAreBooleans() throws Exception {
+        String graph = load("g.txt");
+        String plain = field(request("POST", "/run?graph=" + graph + "&a=bsa&s=1").body(), "key");
+        HttpResponse<String> off = request("POST", "/run?graph=" + graph + "&a=bsa&s=1&adaptive=false");
+        assertEquals("true", field(off.body(), "cached"));
+        assertEquals(plain, field(off.body(), "key"));
+
+        String on = field(request("POST", "/run?graph=" + graph + "&a=bsa&s=1&adaptive").body(), "key");
+        assertNotEquals(plain, on);
+        assertEquals(on, field(request("POST", "/run?graph=" + graph + "&a=bsa&s=1&adaptive=true").body(), "key"));
+        assertEquals(400, request("POST", "/run?graph=" + graph + "&a=lpa&s=1&sync=no").statusCode());
+    }
+
+    @Test
+    public void testUnseededRandomizedRunsAreNotCached() throws Exception {
+        String graph = load("g.txt");
+        request("POST", "/run?graph=" + graph + "&a=lpa");
+        assertEquals("false", field(request("POST", "/run?graph=" + graph + "&a=lpa").body(), "cached"));
+        request("POST", "/run?graph=" + graph + "&a=lpa&s=3");
+        assertEquals("true", field(request("POST", "/run?graph=" + graph + "&a=lpa&s=3").body(), "cached"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultIsEvicted() throws Exception {
+        String graph = load("g.txt");
+        String gn = field(request("POST", "/run?graph=" + graph + "&a=gn").body(), "key");
+        request("POST", "/run?graph=" + graph + "&a=gnr");
+        request("POST", "/run?graph=" + graph + "&a=gn"); // gn becomes the most recent
+        request("POST", "/run?graph=" + graph + "&a=louvain&s=1"); // evicts gnr
+
+        assertEquals("true", field(request("POST", "/run?graph=" + graph + "&a=gn").body(), "cached"));
+        assertEquals("false", field(request("POST", "/run?graph=" + graph + "&a=gnr").body(), "cached"));
+        assertEquals(200, request("GET", "/partition?key=" + gn).statusCode());
+    }
+
+    @Test
+    public void testConcurrentRuns() throws Exception {
+        String graph = load("g.txt");
+        List<CompletableFuture<HttpResponse<String>>> responses = new java.util.ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port()
+                    + "/run?graph=" + graph + "&a=bsa&s=" + (i % 2))).POST(HttpRequest.BodyPublishers.noBody()).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> r : responses) {
+            assertEquals(200, r.get().statusCode(), r.get().body());
+        }
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        assertEquals(404, request("POST", "/run?graph=nope&a=gn").statusCode());
+        String graph = load("g.txt");
+        assertEquals(400, request("POST", "/run?graph=" + graph + "&a=nope").statusCode());
+        assertEquals(400, request("POST", "/run?graph=" + graph + "&a=gn&k=x").statusCode());
+        assertEquals(400, request("POST", "/run?graph=" + graph + "&a=lpa&s=1&k=2").statusCode());
+        assertEquals(405, request("GET", "/run?graph=" + graph).statusCode());
+        assertEquals(404, request("GET", "/partition?key=nope").statusCode());
+        assertEquals(400, request("POST", "/graphs?path=" + dir.resolve("missing.txt")).statusCode());
+
+        // Invalid delimiter pattern: an error response, not a dropped connection
+        Path file = dir.resolve("g.txt");
+        HttpResponse<String> r = request("POST", "/graphs?path=" + URLEncoder.encode(file.toString(), StandardCharsets.UTF_8)
+                + "&delimiter=%28");
+        assertEquals(400, r.statusCode());
+        assertTrue(r.body().startsWith("{\"error\":\"cannot load graph"), r.body());
+    }
+
+    @Test
+    public void testErrorBodyEscapesControlCharacters() {
+        assertEquals("{\"error\":\"bad \\\"a\\\\b\\\"\\nline\\r\\t\\u0001\\u001f end\"}\n",
+                AnalysisServer.error("bad \"a\\b\"\nline\r\t\u0001\u001f end"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.thenuber.aaga;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchRemovalTest {
+
+    // Several disjoint rings of small cliques, of different sizes
+    private static CsrGraph disjointRings(int rings) {
+        SimpleGraph g = new SimpleGraph();
+        for (int r = 0; r < rings; r++) {
+            int cliques = 3 + r;
+            for (int c = 0; c < cliques; c++) {
+                for (int i = 0; i < 4; i++) {
+                    for (int j = i + 1; j < 4; j++) {
+                        g.addEdge(r + "_" + c + "_" + i, r + "_" + c + "_" + j);
+                    }
+                }
+                g.addEdge(r + "_" + c + "_0", r + "_" + ((c + 1) % cliques) + "_1");
+            }
+        }
+        return CsrGraph.of(g);
+    }
+
+    @Test
+    public void testAtMostOneDecisionPerComponent() {
+        CsrGraph g = disjointRings(4);
+        ComponentTracker components = new ComponentTracker(g);
+        double[] eb = new GirvanNewman().edgeBetweenness(g);
+
+        BatchRemoval batch = new BatchRemoval();
+        batch.setFraction(1.0);
+        List<Integer> edges = batch.select(g, eb, components);
+
+        // Every component contributes its maximum (and exact ties of it), in decreasing order
+        double[] componentMax = new double[components.componentCount()];
+        for (int e = 0; e < eb.length; e++) {
+            int c = components.component(g.edgeSource(e));
+            componentMax[c] = Math.max(componentMax[c], eb[e]);
+        }
+        boolean[] seen = new boolean[components.componentCount()];
+        for (int e : edges) {
+            int c = components.component(g.edgeSource(e));
+            assertEquals(componentMax[c], eb[e]);
+            seen[c] = true;
+        }
+        for (boolean s : seen) assertTrue(s);
+        for (int i = 1; i < components.componentCount(); i++) {
+            assertTrue(eb[edges.get(i - 1)] >= eb[edges.get(i)]);
+        }
+
+        // Top-k keeps the components with the largest maxima
+        batch = new BatchRemoval();
+        batch.setTopK(1);
+        int top = batch.select(g, eb, components).get(0);
+        assertEquals(GirvanNewman.maxEdges(g, eb).get(0), top);
+
+        // The threshold drops the components far from the maximum
+        batch = new BatchRemoval();
+        batch.setFraction(0.01);
+        for (int e : batch.select(g, eb, components)) assertTrue(eb[e] >= 0.99 * eb[top]);
+    }
+
+    @Test
+    public void testBatchRunsNeedFewerPasses() {
+        CsrGraph g = disjointRings(5);
+        BatchRemoval batch = new BatchRemoval();
+        batch.setFraction(1.0);
+
+        BetweennessSamplingAlgo bsa = new BetweennessSamplingAlgo();
+        bsa.setSeed(5);
+        GraphAlgorithm[] algorithms = { new GirvanNewman(), new GirvanNewmanRevised(), bsa };
+        for (GraphAlgorithm algorithm : algorithms) {
+            Dendrogram exact = algorithm.run(g);
+            if (algorithm instanceof GirvanNewman) ((GirvanNewman) algorithm).setBatchRemoval(batch);
+            else ((BetweennessSamplingAlgo) algorithm).setBatchRemoval(batch);
+            Dendrogram batched = algorithm.run(g);
+
+            assertTrue(batched.levelCount() < exact.levelCount());
+            assertEquals(g.vertexCount(), batched.communityCount(batched.levelCount() - 1));
+        }
+    }
+
+    @Test
+    public void testInvalidLimits() {
+        BatchRemoval batch = new BatchRemoval();
+        assertTrue(!batch.isEnabled());
+        assertThrows(IllegalArgumentException.class, () -> batch.setTopK(-1));
+        assertThrows(IllegalArgumentException.class, () -> batch.setFraction(1.5));
+    }
+}
@@ -0,0 +1,166 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BetweennessSamplingAlgoTest {
+
+    // Ring of small cliques joined by single edges, plus a few chords between cliques
+    private static CsrGraph ringOfCliques(int cliques, int size) {
+        SimpleGraph g = new SimpleGraph();
+        for (int c = 0; c < cliques; c++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    g.addEdge(c + "_" + i, c + "_" + j);
+                }
+            }
+            g.addEdge(c + "_0", ((c + 1) % cliques) + "_1");
+            if (c % 3 == 0) g.addEdge(c + "_2", ((c + 5) % cliques) + "_3");
+        }
+        return CsrGraph.of(g);
+    }
+
+    private static BetweennessSamplingAlgo bsa(long seed, int threads) {
+        BetweennessSamplingAlgo bsa = new BetweennessSamplingAlgo();
+        bsa.setSeed(seed);
+        bsa.setThreads(threads);
+        bsa.setEpsilon(0.1);
+        return bsa;
+    }
+
+    @Test
+    public void testSameSeedSameResultWhateverThreadCount() {
+        CsrGraph g = ringOfCliques(15, 5);
+
+        Dendrogram expected = bsa(42, 1).run(g);
+        for (int threads : new int[] { 1, 2, 5 }) {
+            Dendrogram d = bsa(42, threads).run(g);
+            assertEquals(expected.levelCount(), d.levelCount());
+            for (int level = 0; level < d.levelCount(); level++) {
+                assertArrayEquals(expected.labels(level), d.labels(level));
+            }
+        }
+    }
+
+    @Test
+    public void testSampledPathIsAShortestPath() {
+        CsrGraph g = ringOfCliques(10, 4);
+        BetweennessSamplingAlgo bsa = bsa(7, 1);
+        for (int source = 0; source < g.vertexCount(); source += 3) {
+            int[] distances = g.distances(source);
+            for (int target = 0; target < g.vertexCount(); target += 5) {
+                int[] path = bsa.computeRandomShortestPath(g, source, target);
+                assertEquals(distances[target], path.length);
+
+                // Consecutive edges, from target back to source
+                int v = target;
+                for (int e : path) {
+                    assertFalse(g.isRemoved(e));
+                    v = g.edgeSource(e) == v ? g.edgeTarget(e) : g.edgeSource(e);
+                }
+                assertEquals(source, v);
+            }
+        }
+    }
+
+    @Test
+    public void testAdaptiveStopsEarlyOnABridge() {
+        // Two 8-cliques joined by a bridge: the bridge carries about half of all shortest paths
+        SimpleGraph sg = new SimpleGraph();
+        for (String side : new String[] { "a", "b" }) {
+            for (int i = 0; i < 8; i++) {
+                for (int j = i + 1; j < 8; j++) sg.addEdge(side + i, side + j);
+            }
+        }
+        sg.addEdge("a0", "b0");
+        CsrGraph g = CsrGraph.of(sg);
+        int bridge = -1;
+        for (int e = 0; e < g.edgeIdCount(); e++) {
+            if (g.edge(e).toString().contains("a0") && g.edge(e).toString().contains("b0")) bridge = e;
+        }
+
+        BetweennessSamplingAlgo bsa = bsa(11, 2);
+        bsa.setEpsilon(0.02);
+        bsa.setVertexDiameter(4);
+        bsa.setAdaptive(true);
+        int cap = bsa.computeSampleSize();
+        double[] eb = bsa.sampledEdgeBetweenness(g);
+
+        int[] samples = bsa.getSamplesPerIteration();
+        assertEquals(1, samples.length);
+        assertTrue(samples[0] < cap, samples[0] + " samples, cap " + cap);
+        for (int e = 0; e < eb.length; e++) {
+            if (e != bridge) assertTrue(eb[e] < eb[bridge]);
+        }
+    }
+
+    @Test
+    public void testSeparationBudgetCoversEveryCandidate() {
+        // Same top two counts: enough against a single rival, not against a thousand
+        SimpleGraph pair = new SimpleGraph();
+        pair.addEdge("c", "0");
+        pair.addEdge("c", "1");
+        SimpleGraph star = new SimpleGraph();
+        for (int i = 0; i < 1001; i++) star.addEdge("c", "" + i);
+        int samples = 10_000;
+        for (CsrGraph g : new CsrGraph[] { CsrGraph.of(pair), CsrGraph.of(star) }) {
+            int[] counts = new int[g.edgeIdCount()];
+            counts[0] = 570;
+            counts[1] = 400;
+            boolean separated = BetweennessSamplingAlgo.isSeparated(g, counts, samples, null, 0.1, 0);
+            assertEquals(g.edgeIdCount() == 2, separated);
+        }
+
+        // Rivals of the star outside the candidates were never sampled: a one-sided bound is enough for them
+        CsrGraph g = CsrGraph.of(star);
+        int[] counts = new int[g.edgeIdCount()];
+        counts[0] = 570;
+        counts[1] = 400;
+        boolean[] candidate = new boolean[g.edgeIdCount()];
+        candidate[0] = candidate[1] = true;
+        assertTrue(BetweennessSamplingAlgo.isSeparated(g, counts, samples, candidate, 0.1, 0));
+    }
+
+    @Test
+    public void testAdaptiveDrawsFewerSamplesOnDataset() throws IOException {
+        CsrGraph g = GraphLoader.loadCsr("data/graphmoyen.txt", " ");
+        long[] total = new long[2];
+        for (int adaptive = 0; adaptive < 2; adaptive++) {
+            BetweennessSamplingAlgo bsa = bsa(1, 1);
+            bsa.setEpsilon(0.05);
+            bsa.setAdaptive(adaptive == 1);
+            StopCriteria stop = new StopCriteria();
+            stop.setCommunities(20);
+            bsa.setStopCriteria(stop);
+            bsa.run(g);
+            for (int samples : bsa.getSamplesPerIteration()) total[adaptive] += samples;
+        }
+        assertTrue(total[1] < total[0], total[1] + " adaptive samples, " + total[0] + " fixed");
+    }
+
+    @Test
+    public void testAdaptiveIndependentOfThreadCount() {
+        CsrGraph g = ringOfCliques(12, 5);
+        BetweennessSamplingAlgo expected = bsa(5, 1);
+        expected.setAdaptive(true);
+        Dendrogram d1 = expected.run(g);
+
+        BetweennessSamplingAlgo parallel = bsa(5, 3);
+        parallel.setAdaptive(true);
+        Dendrogram d2 = parallel.run(g);
+
+        assertArrayEquals(expected.getSamplesPerIteration(), parallel.getSamplesPerIteration());
+        assertEquals(d1.levelCount(), d2.levelCount());
+        for (int level = 0; level < d1.levelCount(); level++) {
+            assertArrayEquals(d1.labels(level), d2.labels(level));
+        }
+        int cap = expected.computeSampleSize(g.vertexCount());
+        for (int samples : expected.getSamplesPerIteration()) assertTrue(samples <= cap);
+    }
+}
@@ -0,0 +1,49 @@
+package com.thenuber.aaga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ComponentTrackerTest {
+
+    @Test
+    public void testMatchesFullRelabelling() {
+        Random rng = new Random(7);
+        SimpleGraph sg = new SimpleGraph();
+        for (int v = 0; v < 80; v++) sg.addVertex("v" + v);
+        while (sg.edgeCount() < 160) sg.addEdge("v" + rng.nextInt(80), "v" + rng.nextInt(80));
+        CsrGraph g = CsrGraph.of(sg);
+
+        ComponentTracker components = new ComponentTracker(g);
+        while (g.edgeCount() > 0) {
+            int e = rng.nextInt(g.edgeIdCount());
+            if (g.isRemoved(e)) continue;
+            int before = components.componentCount();
+            int child = components.removeEdge(e);
+
+            int[] expected = g.connectedComponents();
+            int count = 0;
+            for (int c : expected) count = Math.max(count, c + 1);
+            assertEquals(count, components.componentCount());
+            assertEquals(child >= 0 ? before + 1 : before, count);
+
+            // Same partition, and member() lists exactly the vertices of each component
+            for (int u = 0; u < g.vertexCount(); u++) {
+                for (int v = 0; v < g.vertexCount(); v++) {
+                    assertTrue((expected[u] == expected[v]) == (components.component(u) == components.component(v)));
+                }
+            }
+            for (int c = 0; c < components.componentCount(); c++) {
+                int degrees = 0;
+                for (int k = 0; k < components.size(c); k++) {
+                    assertEquals(c, components.component(components.member(c, k)));
+                    degrees += g.degree(components.member(c, k));
+                }
+                assertEquals(degrees / 2, components.edgeCount(c));
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.thenuber.aaga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DendrogramTest {
+
+    // Two components {0..5} and {6..8}: {0..5} splits into {0,1,2} / {3,4,5}, then {3,4,5} into {3} / {4,5}
+    @Test
+    public void testLevelsFromLabels() {
+        SimpleGraph sg = new SimpleGraph();
+        for (int v = 0; v < 9; v++) sg.addVertex("v" + v);
+        CsrGraph g = CsrGraph.of(sg);
+
+        List<int[]> levels = new ArrayList<>();
+        levels.add(new int[] { 0, 0, 0, 0, 0, 0, 1, 1, 1 });
+        levels.add(new int[] { 0, 0, 0, 1, 1, 1, 2, 2, 2 });
+        levels.add(new int[] { 0, 0, 0, 1, 1, 1, 2, 2, 2 });
+        levels.add(new int[] { 3, 3, 3, 0, 1, 1, 2, 2, 2 });
+
+        Dendrogram.Builder builder = new Dendrogram.Builder(g, levels.get(0));
+        for (int k = 1; k < levels.size(); k++) builder.endStep(levels.get(k));
+        Dendrogram d = builder.build();
+
+        assertEquals(4, d.levelCount());
+        assertEquals(2, d.communityCount(0));
+        assertEquals(3, d.communityCount(1));
+        assertEquals(3, d.communityCount(2));
+        assertEquals(4, d.communityCount(3));
+        for (int k = 0; k < levels.size(); k++) {
+            assertSamePartition(levels.get(k), d.labels(k));
+        }
+    }
+
+    private static void assertSamePartition(int[] expected, int[] actual) {
+        for (int u = 0; u < expected.length; u++) {
+            for (int v = 0; v < expected.length; v++) {
+                assertTrue((expected[u] == expected[v]) == (actual[u] == actual[v]));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.thenuber.aaga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EdgeHeapTest {
+
+    // Edges of maximum value among present[], by increasing id
+    private static List<Integer> naiveMax(boolean[] present, double[] value) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int e = 0; e < value.length; e++) {
+            if (present[e] && value[e] > max) max = value[e];
+        }
+        List<Integer> edges = new ArrayList<>();
+        for (int e = 0; e < value.length; e++) {
+            if (present[e] && value[e] == max) edges.add(e);
+        }
+        return edges;
+    }
+
+    @Test
+    public void testRandomUpdatesMatchFullScan() {
+        int m = 200;
+        SplittableRandom random = new SplittableRandom(7);
+        EdgeHeap heap = new EdgeHeap(m);
+        boolean[] present = new boolean[m];
+        double[] value = new double[m];
+        for (int step = 0; step < 20_000; step++) {
+            int e = random.nextInt(m);
+            if (random.nextInt(4) == 0) {
+                heap.remove(e);
+                present[e] = false;
+            } else {
+                // Few distinct values, so that ties are frequent
+                value[e] = random.nextInt(12) / 4.0;
+                heap.set(e, value[e]);
+                present[e] = true;
+            }
+            assertEquals(naiveMax(present, value), heap.maxEdges());
+        }
+    }
+
+    @Test
+    public void testBuiltFromGraph() {
+        SimpleGraph s = new SimpleGraph();
+        for (int i = 0; i < 10; i++) s.addEdge("a" + i, "a" + (i + 1));
+        CsrGraph g = CsrGraph.of(s);
+        double[] eb = new GirvanNewman().edgeBetweenness(g);
+        g.removeEdge(5);
+        EdgeHeap heap = EdgeHeap.of(g, eb);
+
+        assertEquals(g.edgeCount(), heap.size());
+        assertFalse(heap.contains(5));
+        boolean[] present = new boolean[g.edgeIdCount()];
+        for (int e = 0; e < present.length; e++) present[e] = !g.isRemoved(e);
+        assertEquals(naiveMax(present, eb), heap.maxEdges());
+        assertEquals(GirvanNewman.maxEdges(g, eb), heap.maxEdges());
+
+        for (int e = 0; e < present.length; e++) heap.remove(e);
+        assertTrue(heap.isEmpty());
+        assertTrue(heap.maxEdges().isEmpty());
+    }
+}
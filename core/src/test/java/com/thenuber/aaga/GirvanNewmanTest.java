@@ -0,0 +1,122 @@
+package com.thenuber.aaga;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class GirvanNewmanTest {
+
+    // Ring of small cliques joined by single edges, plus a few chords between cliques
+    private static CsrGraph ringOfCliques(int cliques, int size) {
+        SimpleGraph g = new SimpleGraph();
+        for (int c = 0; c < cliques; c++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    g.addEdge(c + "_" + i, c + "_" + j);
+                }
+            }
+            g.addEdge(c + "_0", ((c + 1) % cliques) + "_1");
+            if (c % 3 == 0) g.addEdge(c + "_2", ((c + 5) % cliques) + "_3");
+        }
+        return CsrGraph.of(g);
+    }
+
+    @Test
+    public void testEdgeBetweennessIndependentOfThreadCount() {
+        CsrGraph g = ringOfCliques(20, 6);
+
+        GirvanNewman sequential = new GirvanNewman();
+        double[] expected = sequential.edgeBetweenness(g);
+
+        for (int threads : new int[] { 2, 3, 8 }) {
+            try (GirvanNewman parallel = new GirvanNewman()) {
+                parallel.setThreads(threads);
+                assertArrayEquals(expected, parallel.edgeBetweenness(g));
+                parallel.close(); // the pool is recreated by the next call
+                assertArrayEquals(expected, parallel.edgeBetweenness(g));
+            }
+        }
+    }
+
+    @Test
+    public void testRevisedCacheMatchesFullBrandesOnEveryStep() {
+        CsrGraph g = ringOfCliques(12, 5);
+        ComponentTracker components = new ComponentTracker(g);
+        GirvanNewman gn = new GirvanNewman();
+        GirvanNewmanRevised revised = new GirvanNewmanRevised();
+
+        double[] eb = gn.edgeBetweenness(g);
+        int[] vertices = new int[g.vertexCount()];
+        while (g.edgeCount() > 0) {
+            // Remove the edge with the largest betweenness, then refresh its component(s) only
+            int best = -1;
+            for (int e = 0; e < eb.length; e++) {
+                if (!g.isRemoved(e) && (best < 0 || eb[e] > eb[best])) best = e;
+            }
+            int child = components.removeEdge(best);
+            eb[best] = 0.0;
+
+            int count = 0;
+            int parent = child >= 0 ? components.lastParent() : components.component(g.edgeSource(best));
+            for (int k = 0; k < components.size(parent); k++) vertices[count++] = components.member(parent, k);
+            if (child >= 0) {
+                for (int k = 0; k < components.size(child); k++) vertices[count++] = components.member(child, k);
+            }
+            revised.recalculateEdgeBetweenness(g, eb, vertices, count);
+
+            assertArrayEquals(gn.edgeBetweenness(g), eb);
+        }
+    }
+
+    @Test
+    public void testRevisedGivesSameDendrogram() {
+        CsrGraph g = ringOfCliques(15, 5);
+        Dendrogram expected = new GirvanNewman().run(g);
+        Dendrogram actual = new GirvanNewmanRevised().run(g);
+
+        assertEquals(expected.levelCount(), actual.levelCount());
+        for (int level = 0; level < expected.levelCount(); level++) {
+            assertArrayEquals(expected.labels(level), actual.labels(level));
+        }
+    }
+
+    @Test
+    public void testComponentParallelGivesSameDendrogram() {
+        CsrGraph g = ringOfCliques(15, 5);
+        Dendrogram expected = new GirvanNewman().run(g);
+
+        GirvanNewman[] algorithms = { new GirvanNewman(), new GirvanNewmanRevised(), new GirvanNewman() };
+        algorithms[2].setThreads(4);
+        for (GirvanNewman gn : algorithms) {
+            gn.setComponentParallel(true);
+            Dendrogram actual = gn.run(g);
+            assertEquals(expected.levelCount(), actual.levelCount());
+            assertEquals(expected.splitCount(), actual.splitCount());
+            for (int level = 0; level < expected.levelCount(); level++) {
+                assertArrayEquals(expected.labels(level), actual.labels(level));
+            }
+        }
+    }
+
+    @Test
+    public void testComponentParallelStopsAtCommunityCount() {
+        CsrGraph g = ringOfCliques(15, 5);
+        StopCriteria stop = new StopCriteria();
+        stop.setCommunities(6);
+        GirvanNewman sequential = new GirvanNewman();
+        sequential.setStopCriteria(stop);
+        Dendrogram expected = sequential.run(g);
+
+        GirvanNewman parallel = new GirvanNewman();
+        parallel.setThreads(3);
+        parallel.setComponentParallel(true);
+        parallel.setStopCriteria(stop);
+        // The sequential loop stops at 6 communities, the component tasks would decompose everything
+        assertFalse(parallel.runsByComponent());
+        Dendrogram actual = parallel.run(g);
+        assertEquals(expected.levelCount(), actual.levelCount());
+        assertArrayEquals(expected.labels(expected.levelCount() - 1), actual.labels(actual.levelCount() - 1));
+    }
+}
@@ -0,0 +1,80 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class GraphLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    // Same vertices (names, in the same order) and same adjacency lists
+    private static void assertSameGraph(CsrGraph expected, CsrGraph actual) {
+        assertEquals(expected.vertexCount(), actual.vertexCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int v = 0; v < expected.vertexCount(); v++) {
+            assertEquals(expected.vertex(v).name(), actual.vertex(v).name());
+            assertEquals(expected.endSlot(v) - expected.firstSlot(v), actual.endSlot(v) - actual.firstSlot(v));
+            for (int j = expected.firstSlot(v), k = actual.firstSlot(v); j < expected.endSlot(v); j++, k++) {
+                assertEquals(expected.target(j), actual.target(k));
+            }
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(dir, "graph", ".txt");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    public void testFastLoaderMatchesTextLoaderOnDatasets() throws IOException {
+        // sample.edgelist has named vertices (text loader), the other datasets numeric ids (fast loader)
+        assertNull(GraphLoader.parseEdgeList("data/sample.edgelist", "\\t", 1));
+        String[][] datasets = { { "data/sample.edgelist", "\\t" }, { "data/graphmoyen.txt", " " },
+                { "data/facebook_combined.txt", " " } };
+        for (String[] dataset : datasets) {
+            if (!dataset[0].equals("data/sample.edgelist")) {
+                assertNotNull(GraphLoader.parseEdgeList(dataset[0], dataset[1], 1), dataset[0]);
+            }
+            CsrGraph expected = CsrGraph.of(GraphLoader.loadEdgeListText(dataset[0], dataset[1]));
+            for (int threads : new int[] { 1, 3 }) {
+                assertSameGraph(expected, GraphLoader.loadCsr(dataset[0], dataset[1], threads));
+            }
+            assertSameGraph(expected, CsrGraph.of(GraphLoader.loadEdgeList(dataset[0], dataset[1])));
+        }
+    }
+
+    @Test
+    public void testFastLoaderEdgeCases() throws IOException {
+        // Comments, blank lines, CRLF, spaces around ids, self loops, duplicates, single columns, extra columns
+        String content = "# comment\n\n 10\t2 \r\n2\t10\n7\t7\n5\n5\t\n3\t10\tignored\n  \t\n100000\t3\n";
+        Path file = write(content);
+        assertNotNull(GraphLoader.parseEdgeList(file.toString(), "\\t", 2));
+        assertSameGraph(CsrGraph.of(GraphLoader.loadEdgeListText(file.toString(), "\\t")),
+                GraphLoader.loadCsr(file.toString(), "\\t", 2));
+    }
+
+    @Test
+    public void testFallbackToTextLoader() throws IOException {
+        String[] contents = { "a\tb\nb\tc\n", "01\t1\n1\t2\n", "1\t\t2\n", "-1\t2\n" };
+        for (String content : contents) {
+            Path file = write(content);
+            assertNull(GraphLoader.parseEdgeList(file.toString(), "\\t", 1), content);
+            assertSameGraph(CsrGraph.of(GraphLoader.loadEdgeListText(file.toString(), "\\t")),
+                    GraphLoader.loadCsr(file.toString(), "\\t"));
+        }
+        // Regex delimiters always use the text loader
+        Path file = write("1  2\n2   3\n");
+        assertNull(GraphLoader.parseEdgeList(file.toString(), "\\s+", 1));
+        assertEquals(2, GraphLoader.loadCsr(file.toString(), "\\s+").edgeCount());
+    }
+}
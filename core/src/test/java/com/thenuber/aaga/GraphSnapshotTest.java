@@ -0,0 +1,61 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GraphSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        SimpleGraph sg = new SimpleGraph();
+        sg.addEdge("a", "b");
+        sg.addEdge("b", "été");
+        sg.addEdge("été", "a");
+        sg.addEdge("a", "dd");
+        sg.addVertex("isolé");
+        CsrGraph g = CsrGraph.of(sg);
+        g.removeEdge(g.edgeId(0, 3)); // removed edges are not written
+
+        String file = dir.resolve("g.bin").toString();
+        GraphSnapshot.write(g, file);
+        assertTrue(GraphSnapshot.isSnapshot(file));
+        CsrGraph h = GraphLoader.loadCsr(file, "\\t");
+
+        assertEquals(g.vertexCount(), h.vertexCount());
+        assertEquals(g.edgeCount(), h.edgeCount());
+        for (int v = 0; v < g.vertexCount(); v++) {
+            assertEquals(g.vertex(v).name(), h.vertex(v).name());
+            for (int w = 0; w < g.vertexCount(); w++) {
+                assertEquals(g.containsEdge(v, w), h.containsEdge(v, w));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path text = dir.resolve("g.txt");
+        Files.writeString(text, "1\t2\n2\t3\n3\t4\n4\t5\n5\t6\n");
+        assertFalse(GraphSnapshot.isSnapshot(text.toString()));
+        assertThrows(IOException.class, () -> GraphSnapshot.read(text.toString()));
+
+        // Truncated snapshot
+        String file = dir.resolve("g.bin").toString();
+        GraphSnapshot.write(GraphLoader.loadCsr(text.toString(), "\\t"), file);
+        byte[] bytes = Files.readAllBytes(Path.of(file));
+        Path truncated = dir.resolve("t.bin");
+        Files.write(truncated, java.util.Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> GraphSnapshot.read(truncated.toString()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.thenuber.aaga;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LabelPropagationTest {
+
+    // Ring of small cliques joined by single edges
+    private static CsrGraph ringOfCliques(int cliques, int size) {
+        SimpleGraph g = new SimpleGraph();
+        for (int c = 0; c < cliques; c++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    g.addEdge(c + "_" + i, c + "_" + j);
+                }
+            }
+            g.addEdge(c + "_0", ((c + 1) % cliques) + "_1");
+        }
+        return CsrGraph.of(g);
+    }
+
+    // Planted partition: groups of size vertices, dense inside, a few edges between groups
+    private static CsrGraph plantedPartition(int groups, int size, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        SimpleGraph g = new SimpleGraph();
+        int n = groups * size;
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                double p = u / size == v / size ? 0.3 : 0.002;
+                if (rng.nextDouble() < p) g.addEdge("v" + u, "v" + v);
+            }
+        }
+        return CsrGraph.of(g);
+    }
+
+    private static LabelPropagation lpa(long seed, boolean synchronous) {
+        LabelPropagation lpa = new LabelPropagation();
+        lpa.setSeed(seed);
+        lpa.setSynchronous(synchronous);
+        return lpa;
+    }
+
+    @Test
+    public void testFindsTheCliques() {
+        CsrGraph g = ringOfCliques(8, 6);
+        Dendrogram parts = lpa(5, false).run(g);
+        assertEquals(2, parts.levelCount());
+        assertEquals(1, parts.communityCount(0));
+
+        // Every clique ends with a single label
+        Map<Vertex, Integer> partition = parts.partition(1);
+        Map<String, Integer> cliqueCommunity = new HashMap<>();
+        for (Vertex v : g.vertices()) {
+            String clique = v.name().substring(0, v.name().indexOf('_'));
+            assertEquals(cliqueCommunity.computeIfAbsent(clique, c -> partition.get(v)), partition.get(v));
+        }
+    }
+
+    @Test
+    public void testCommunitiesRefineComponents() {
+        SimpleGraph g = new SimpleGraph();
+        for (int i = 0; i < 5; i++) {
+            for (int j = i + 1; j < 5; j++) {
+                g.addEdge("a" + i, "a" + j);
+                g.addEdge("b" + i, "b" + j);
+            }
+        }
+        g.addVertex("alone");
+        for (boolean synchronous : new boolean[] { false, true }) {
+            Dendrogram parts = lpa(1, synchronous).run(g);
+            assertEquals(3, parts.communityCount(0));
+            assertEquals(3, parts.communityCount(1));
+            int[] labels = parts.labels(1);
+            assertNotEquals(labels[0], labels[5]);
+        }
+    }
+
+    @Test
+    public void testResultDoesNotDependOnThreads() {
+        CsrGraph g = plantedPartition(10, 80, 3);
+        for (boolean synchronous : new boolean[] { false, true }) {
+            LabelPropagation lpa = lpa(17, synchronous);
+            int[] one = lpa.run(g).labels(1);
+            lpa.setThreads(4);
+            int[] four = lpa.run(g).labels(1);
+            assertArrayEquals(one, four);
+        }
+    }
+
+    @Test
+    public void testSemiSynchronousConverges() {
+        CsrGraph g = plantedPartition(6, 60, 8);
+        LabelPropagation lpa = lpa(2, false);
+        Dendrogram parts = lpa.run(g);
+        assertTrue(lpa.getSweeps() < lpa.getMaxSweeps());
+        assertTrue(Modularity.compute(g, parts.labels(1)) > 0.6);
+    }
+
+    @Test
+    public void testMaxSweeps() {
+        CsrGraph g = plantedPartition(4, 50, 6);
+        LabelPropagation lpa = lpa(9, true);
+        lpa.setMaxSweeps(1);
+        lpa.run(g);
+        assertEquals(1, lpa.getSweeps());
+    }
+}
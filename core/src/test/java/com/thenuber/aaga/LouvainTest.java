@@ -0,0 +1,189 @@
+package com.thenuber.aaga;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LouvainTest {
+
+    // Ring of small cliques joined by single edges
+    private static CsrGraph ringOfCliques(int cliques, int size) {
+        SimpleGraph g = new SimpleGraph();
+        for (int c = 0; c < cliques; c++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    g.addEdge(c + "_" + i, c + "_" + j);
+                }
+            }
+            g.addEdge(c + "_0", ((c + 1) % cliques) + "_1");
+        }
+        return CsrGraph.of(g);
+    }
+
+    // Planted partition: groups of size vertices, dense inside, a few edges between groups
+    private static CsrGraph plantedPartition(int groups, int size, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        SimpleGraph g = new SimpleGraph();
+        int n = groups * size;
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                double p = u / size == v / size ? 0.3 : 0.005;
+                if (rng.nextDouble() < p) g.addEdge("v" + u, "v" + v);
+            }
+        }
+        return CsrGraph.of(g);
+    }
+
+    private static Louvain louvain(long seed) {
+        Louvain louvain = new Louvain();
+        louvain.setSeed(seed);
+        return louvain;
+    }
+
+    @Test
+    public void testFindsTheCliques() {
+        CsrGraph g = ringOfCliques(10, 6);
+        for (boolean refine : new boolean[] { true, false }) {
+            Louvain louvain = louvain(3);
+            louvain.setRefine(refine);
+            Dendrogram parts = louvain.run(g);
+
+            // Level 0 is the final partition: one community per clique
+            Map<Vertex, Integer> partition = parts.partition(0);
+            assertEquals(10, parts.communityCount(0));
+            Map<String, Integer> cliqueCommunity = new HashMap<>();
+            for (Vertex v : g.vertices()) {
+                String clique = v.name().substring(0, v.name().indexOf('_'));
+                assertEquals(cliqueCommunity.computeIfAbsent(clique, c -> partition.get(v)), partition.get(v));
+            }
+        }
+    }
+
+    @Test
+    public void testLevelsAreNestedAndCoarsestIsBest() {
+        CsrGraph g = plantedPartition(8, 40, 5);
+        Dendrogram parts = louvain(7).run(g);
+        assertTrue(parts.levelCount() >= 2);
+
+        // Every level refines the previous one
+        for (int level = 1; level < parts.levelCount(); level++) {
+            assertTrue(parts.communityCount(level) > parts.communityCount(level - 1));
+            int[] coarse = parts.labels(level - 1);
+            int[] fine = parts.labels(level);
+            int[] parent = new int[parts.communityCount(level)];
+            Arrays.fill(parent, -1);
+            for (int v = 0; v < fine.length; v++) {
+                if (parent[fine[v]] < 0) parent[fine[v]] = coarse[v];
+                assertEquals(parent[fine[v]], coarse[v]);
+            }
+        }
+
+        double q = Modularity.compute(g, parts.labels(0));
+        for (int level = 1; level < parts.levelCount(); level++) {
+            assertTrue(q >= Modularity.compute(g, parts.labels(level)));
+        }
+        assertTrue(q > 0.7);
+    }
+
+    @Test
+    public void testRefinedCommunitiesAreConnected() {
+        CsrGraph g = plantedPartition(6, 50, 9);
+        Dendrogram parts = louvain(1).run(g);
+        for (int level = 0; level < parts.levelCount(); level++) {
+            int[] labels = parts.labels(level);
+            // Each community is reached from one of its vertices without leaving it
+            Set<Integer> seen = new HashSet<>();
+            int[] component = g.connectedComponents();
+            for (int v = 0; v < labels.length; v++) {
+                if (!seen.add(labels[v])) continue;
+                int[] dist = restrictedDistances(g, labels, v);
+                for (int w = 0; w < labels.length; w++) {
+                    if (labels[w] == labels[v] && component[w] == component[v]) assertTrue(dist[w] >= 0);
+                }
+            }
+        }
+    }
+
+    // BFS from source through the vertices of its community only
+    private static int[] restrictedDistances(CsrGraph g, int[] labels, int source) {
+        int[] dist = new int[g.vertexCount()];
+        Arrays.fill(dist, -1);
+        int[] queue = new int[g.vertexCount()];
+        int head = 0, tail = 0;
+        dist[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int j = g.firstSlot(v); j < g.endSlot(v); j++) {
+                int w = g.target(j);
+                if (labels[w] == labels[source] && dist[w] < 0) {
+                    dist[w] = dist[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return dist;
+    }
+
+    @Test
+    public void testParallelMovesDoNotDependOnThreads() {
+        CsrGraph g = plantedPartition(10, 300, 2);
+        Louvain louvain = louvain(42);
+        louvain.setParallelMoves(true);
+        Dendrogram one = louvain.run(g);
+        louvain.setThreads(4);
+        Dendrogram four = louvain.run(g);
+
+        assertEquals(one.levelCount(), four.levelCount());
+        for (int level = 0; level < one.levelCount(); level++) {
+            assertArrayEquals(one.labels(level), four.labels(level));
+        }
+        assertTrue(Modularity.compute(g, one.labels(0)) > 0.7);
+    }
+
+    @Test
+    public void testSameSeedSameResult() {
+        CsrGraph g = plantedPartition(5, 60, 4);
+        Dendrogram a = louvain(13).run(g);
+        Dendrogram b = louvain(13).run(g);
+        assertEquals(a.levelCount(), b.levelCount());
+        for (int level = 0; level < a.levelCount(); level++) {
+            assertArrayEquals(a.labels(level), b.labels(level));
+        }
+    }
+
+    @Test
+    public void testStopsAtCommunityCount() {
+        CsrGraph g = plantedPartition(8, 40, 5);
+        Louvain louvain = louvain(7);
+        Dendrogram full = louvain.run(g);
+        int k = full.communityCount(1);
+
+        StopCriteria stop = new StopCriteria();
+        stop.setCommunities(k);
+        louvain.setStopCriteria(stop);
+        Dendrogram stopped = louvain.run(g);
+
+        assertEquals(2, stopped.levelCount());
+        assertArrayEquals(full.labels(1), stopped.labels(1));
+    }
+
+    @Test
+    public void testGraphWithoutEdges() {
+        SimpleGraph g = new SimpleGraph();
+        g.addVertex("a");
+        g.addVertex("b");
+        Dendrogram parts = louvain(0).run(g);
+        assertEquals(1, parts.levelCount());
+        assertEquals(2, parts.communityCount(0));
+    }
+}
@@ -0,0 +1,91 @@
+package com.thenuber.aaga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ModularityTest {
+    @Test
+    public void testSimpleTwoCommunities() {
+        SimpleGraph g = new SimpleGraph();
+
+        Vertex v1 = g.addVertex("a");
+        Vertex v2 = g.addVertex("b");
+        Vertex v3 = g.addVertex("c");
+        Vertex v4 = g.addVertex("d");
+
+        g.addEdge(v1, v2);
+        g.addEdge(v3, v4);
+
+        Map<Vertex,Integer> part = g.getConnectedComponents();
+
+        double q = Modularity.compute(g, part);
+        assertTrue(q >= 0.0);
+    }
+
+    // Definition of Q as a double sum over all vertex pairs
+    private static double pairwise(SimpleGraph g, Map<Vertex, Integer> partition) {
+        double m = g.edgeCount();
+        double q = 0.0;
+        for (Vertex i : g.vertices()) {
+            for (Vertex j : g.vertices()) {
+                if (!partition.get(i).equals(partition.get(j))) continue;
+                double Aij = g.containsEdge(i, j) ? 1.0 : 0.0;
+                q += (Aij - (g.degree(i) * g.degree(j)) / (2.0 * m));
+            }
+        }
+        return q / (2.0 * m);
+    }
+
+    private static SimpleGraph randomGraph(int n, int m, long seed) {
+        Random rng = new Random(seed);
+        SimpleGraph g = new SimpleGraph();
+        for (int v = 0; v < n; v++) g.addVertex("v" + v);
+        while (g.edgeCount() < m) {
+            g.addEdge("v" + rng.nextInt(n), "v" + rng.nextInt(n));
+        }
+        return g;
+    }
+
+    @Test
+    public void testMatchesPairwiseDefinition() {
+        SimpleGraph g = randomGraph(60, 200, 1);
+        Random rng = new Random(2);
+        Map<Vertex, Integer> part = new HashMap<>();
+        for (Vertex v : g.vertices()) part.put(v, rng.nextInt(5));
+
+        double expected = pairwise(g, part);
+        assertEquals(expected, Modularity.compute(g, part), 1e-12);
+        assertEquals(expected, Modularity.compute(CsrGraph.of(g), part), 1e-12);
+    }
+
+    @Test
+    public void testTrackerFollowsSplits() {
+        CsrGraph g = CsrGraph.of(randomGraph(60, 200, 3));
+        int n = g.vertexCount();
+        int[] labels = new int[n];
+        ModularityTracker tracker = new ModularityTracker(g, labels);
+        assertEquals(Modularity.compute(g, labels), tracker.modularity(), 1e-12);
+
+        // Refine the partition step by step: each step moves a random subset into a new community
+        Random rng = new Random(4);
+        for (int step = 1; step < 10; step++) {
+            int parent = rng.nextInt(step);
+            int[] moved = new int[n];
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                if (labels[v] == parent && rng.nextBoolean()) {
+                    labels[v] = step;
+                    moved[count++] = v;
+                }
+            }
+            tracker.split(parent, step, moved, 0, count);
+            assertEquals(Modularity.compute(g, labels), tracker.modularity(), 1e-12);
+        }
+    }
+}
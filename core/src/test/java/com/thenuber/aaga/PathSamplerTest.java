@@ -0,0 +1,66 @@
+package com.thenuber.aaga;
+
+import java.util.*;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PathSamplerTest {
+
+    // size x size grid, vertex (i, j) named "i_j"
+    private static CsrGraph grid(int size) {
+        SimpleGraph g = new SimpleGraph();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i + 1 < size) g.addEdge(i + "_" + j, (i + 1) + "_" + j);
+                if (j + 1 < size) g.addEdge(i + "_" + j, i + "_" + (j + 1));
+            }
+        }
+        return CsrGraph.of(g);
+    }
+
+    private static int index(CsrGraph g, String name) {
+        for (int v = 0; v < g.vertexCount(); v++) {
+            if (g.vertex(v).name().equals(name)) return v;
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @Test
+    public void testCornerToCornerPathsAreUniform() {
+        // 4x4 grid: C(6,3) = 20 shortest paths between opposite corners
+        CsrGraph g = grid(4);
+        int s = index(g, "0_0");
+        int t = index(g, "3_3");
+        PathSampler sampler = PathSampler.get(g);
+        SplittableRandom rng = new SplittableRandom(3);
+        int[] path = new int[g.vertexCount()];
+
+        int samples = 20000;
+        Map<String, Integer> counts = new HashMap<>();
+        for (int k = 0; k < samples; k++) {
+            int length = sampler.randomShortestPath(g, s, t, rng, path);
+            assertEquals(6, length);
+            counts.merge(Arrays.toString(Arrays.copyOf(path, length)), 1, Integer::sum);
+        }
+        assertEquals(20, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - samples / 20) < 200, "count " + count);
+        }
+    }
+
+    @Test
+    public void testUnreachableTarget() {
+        CsrGraph g = grid(3);
+        int s = index(g, "0_0");
+        // Isolate the opposite corner
+        int t = index(g, "2_2");
+        for (int j = g.firstSlot(t); j < g.endSlot(t); j++) g.removeEdge(g.edgeAt(j));
+
+        int[] path = new int[g.vertexCount()];
+        assertEquals(0, PathSampler.get(g).randomShortestPath(g, s, t, new SplittableRandom(1), path));
+        assertEquals(0, PathSampler.get(g).randomShortestPath(g, t, s, new SplittableRandom(1), path));
+    }
+}
@@ -0,0 +1,131 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResultCacheTest {
+
+    private static final List<String> RUN = List.of("_partition.txt", "_metrics.txt", "_modularity.txt");
+
+    @TempDir
+    Path dir;
+
+    private Path input(String name, String... lines) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, List.of(lines));
+        return file;
+    }
+
+    // Fake run outputs of about bytes bytes under prefix
+    private String outputs(String prefix, String content, int bytes) throws IOException {
+        String out = dir.resolve(prefix).toString();
+        Files.writeString(Path.of(out + "_partition.txt"), content + "x".repeat(bytes));
+        Files.writeString(Path.of(out + "_metrics.txt"), "modularity\t0.5\n");
+        Files.writeString(Path.of(out + "_modularity.txt"), "level\tcommunities\tmodularity\n");
+        return out;
+    }
+
+    @Test
+    public void testKey() throws IOException {
+        String a = input("a.txt", "1\t2", "2\t3").toString();
+        String same = input("same.txt", "1\t2", "2\t3").toString();
+        String other = input("other.txt", "1\t2", "2\t4").toString();
+        Map<String, String> gn = Map.of("a", "gn", "i", a, "o", "results/a");
+
+        String key = ResultCache.key(a, "\\t", gn);
+        assertEquals(key, ResultCache.key(same, "\\t", Map.of("a", "gn", "t", "8", "o", "results/b")));
+        assertNotEquals(key, ResultCache.key(other, "\\t", gn));
+        assertNotEquals(key, ResultCache.key(a, " ", gn));
+        assertNotEquals(key, ResultCache.key(a, "\\t", Map.of("a", "gnr")));
+        assertNotEquals(ResultCache.key(a, "\\t", Map.of("a", "bsa", "s", "1")),
+                ResultCache.key(a, "\\t", Map.of("a", "bsa", "s", "2")));
+        assertNotEquals(ResultCache.key(a, "\\t", Map.of("a", "bsa", "s", "1")),
+                ResultCache.key(a, "\\t", Map.of("a", "bsa", "s", "1", "epsilon", "0.1")));
+    }
+
+    @Test
+    public void testStoreAndRestore() throws IOException {
+        ResultCache cache = new ResultCache(dir.resolve("cache").toString(), 1 << 20);
+        String out = outputs("run", "a\t0\n", 0);
+        assertFalse(cache.restore("k", dir.resolve("restored").toString()));
+        cache.store("k", out, RUN);
+        cache.store("k", out, RUN); // already stored: kept as is
+
+        String restored = dir.resolve("restored").toString();
+        assertTrue(cache.restore("k", restored));
+        for (String suffix : RUN) {
+            assertEquals(Files.readString(Path.of(out + suffix)), Files.readString(Path.of(restored + suffix)));
+        }
+        assertFalse(Files.exists(Path.of(restored + "_samples.txt")));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+        Path cacheDir = dir.resolve("cache");
+        ResultCache cache = new ResultCache(cacheDir.toString(), 2500);
+        cache.store("a", outputs("a", "a", 1000), RUN);
+        cache.store("b", outputs("b", "b", 1000), RUN);
+        Files.setLastModifiedTime(cacheDir.resolve("a"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(cacheDir.resolve("b"), FileTime.fromMillis(2000));
+
+        // Reading a makes b the least recently used entry
+        assertTrue(cache.restore("a", dir.resolve("restored").toString()));
+        cache.store("c", outputs("c", "c", 1000), RUN);
+
+        assertTrue(cache.restore("a", dir.resolve("restored").toString()));
+        assertFalse(cache.restore("b", dir.resolve("restored").toString()));
+        assertTrue(cache.restore("c", dir.resolve("restored").toString()));
+        assertTrue(cache.size() <= 2500);
+
+        // An entry larger than the cap evicts everything else but is kept
+        cache.store("d", outputs("d", "d", 5000), RUN);
+        assertTrue(cache.restore("d", dir.resolve("restored").toString()));
+        assertFalse(cache.restore("a", dir.resolve("restored").toString()));
+        assertFalse(cache.restore("c", dir.resolve("restored").toString()));
+    }
+
+    @Test
+    public void testRestoreRemovesOutputsTheRunDidNotProduce() throws IOException {
+        ResultCache cache = new ResultCache(dir.resolve("cache").toString(), 1 << 20);
+        cache.store("gn", outputs("gn", "a\t0\n", 0), RUN);
+
+        // Left over from an earlier bsa run with the same prefix
+        String out = outputs("out", "stale", 0);
+        Files.writeString(Path.of(out + "_samples.txt"), "iteration\tsamples\n");
+        assertTrue(cache.restore("gn", out));
+        assertEquals("a\t0\n", Files.readString(Path.of(out + "_partition.txt")));
+        assertFalse(Files.exists(Path.of(out + "_samples.txt")));
+        assertFalse(Files.exists(Path.of(out + "_partition.txt.tmp")));
+    }
+
+    @Test
+    public void testIncompleteEntryIsAMiss() throws IOException {
+        Path cacheDir = dir.resolve("cache");
+        ResultCache cache = new ResultCache(cacheDir.toString(), 1 << 20);
+        cache.store("k", outputs("run", "cached", 0), RUN);
+
+        // A file of the manifest was evicted by another process: the outputs are left as they were
+        Files.delete(cacheDir.resolve("k").resolve("modularity.txt"));
+        String out = outputs("out", "previous", 0);
+        assertFalse(cache.restore("k", out));
+        assertEquals("previous", Files.readString(Path.of(out + "_partition.txt")));
+        for (String suffix : RUN) assertFalse(Files.exists(Path.of(out + suffix + ".tmp")));
+
+        // So is an entry without a manifest
+        cache.store("m", outputs("run", "cached", 0), RUN);
+        Files.delete(cacheDir.resolve("m").resolve(ResultCache.MANIFEST));
+        assertFalse(cache.restore("m", out));
+    }
+}
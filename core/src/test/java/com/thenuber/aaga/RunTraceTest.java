@@ -0,0 +1,127 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RunTraceTest {
+
+    @TempDir
+    Path dir;
+
+    // Ring of small cliques joined by single edges
+    private static CsrGraph ringOfCliques(int cliques, int size) {
+        SimpleGraph g = new SimpleGraph();
+        for (int c = 0; c < cliques; c++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    g.addEdge(c + "_" + i, c + "_" + j);
+                }
+            }
+            g.addEdge(c + "_0", ((c + 1) % cliques) + "_1");
+        }
+        return CsrGraph.of(g);
+    }
+
+    @Test
+    public void testRecordedIterationsMatchTheDendrogram() throws IOException {
+        CsrGraph g = ringOfCliques(6, 4);
+        GraphAlgorithm[] algorithms = { new GirvanNewman(), new GirvanNewmanRevised(), new BetweennessSamplingAlgo() };
+        ((BetweennessSamplingAlgo) algorithms[2]).setSeed(3);
+
+        for (GraphAlgorithm algorithm : algorithms) {
+            algorithm.setTracing(true);
+            Dendrogram parts = algorithm.run(g);
+            RunTrace trace = algorithm.getTrace();
+
+            assertEquals(parts.levelCount() - 1, trace.iterationCount());
+            int removed = 0;
+            for (int it = 0; it < trace.iterationCount(); it++) {
+                removed += trace.edgesRemoved(it);
+                assertEquals(parts.communityCount(it + 1), trace.components(it));
+                for (int p = 0; p < trace.phaseCount(); p++) assertTrue(trace.phaseNanos(it, p) >= 0);
+            }
+            assertEquals(g.edgeCount(), removed);
+            assertEquals(g.vertexCount(), trace.components(trace.iterationCount() - 1));
+        }
+
+        // Samples are only reported by BSA
+        BetweennessSamplingAlgo bsa = (BetweennessSamplingAlgo) algorithms[2];
+        int[] samples = bsa.getSamplesPerIteration();
+        for (int it = 0; it < samples.length; it++) assertEquals(samples[it], bsa.getTrace().samples(it));
+        assertEquals(0, algorithms[0].getTrace().samples(0));
+    }
+
+    @Test
+    public void testNothingIsRecordedWhenDisabled() {
+        GirvanNewman gn = new GirvanNewman();
+        gn.run(ringOfCliques(4, 4));
+        assertEquals(0, gn.getTrace().iterationCount());
+    }
+
+    @Test
+    public void testJsonlAndCsvHaveOneLinePerIteration() throws IOException {
+        GirvanNewman gn = new GirvanNewman();
+        gn.setTracing(true);
+        gn.run(ringOfCliques(4, 4));
+        RunTrace trace = gn.getTrace();
+
+        Path jsonl = dir.resolve("t.jsonl");
+        Path csv = dir.resolve("t.csv");
+        trace.writeJsonl(jsonl.toString());
+        trace.writeCsv(csv.toString());
+
+        List<String> lines = Files.readAllLines(jsonl);
+        assertEquals(trace.iterationCount(), lines.size());
+        assertTrue(lines.get(0).startsWith("{\"algorithm\":\"gn\",\"iteration\":1,\"betweenness_ns\":"));
+        lines = Files.readAllLines(csv);
+        assertEquals(trace.iterationCount() + 1, lines.size());
+        assertEquals("iteration,betweenness_ns,max_scan_ns,removal_ns,partition_ns,edges_removed,components,samples,allocated_bytes",
+                lines.get(0));
+    }
+
+    @Test
+    public void testJfrEventsAreEmittedWhenEnabled() throws IOException {
+        CsrGraph g = ringOfCliques(4, 4);
+        GirvanNewman gn = new GirvanNewman();
+        Path file = dir.resolve("run.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.thenuber.aaga.Iteration");
+            recording.enable("com.thenuber.aaga.Phase");
+            recording.start();
+            gn.run(g);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        int iterations = 0;
+        int phases = 0;
+        int removed = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            String name = event.getEventType().getName();
+            if (name.equals("com.thenuber.aaga.Iteration")) {
+                iterations++;
+                removed += event.getInt("edgesRemoved");
+                assertEquals("gn", event.getString("algorithm"));
+            } else if (name.equals("com.thenuber.aaga.Phase")) {
+                phases++;
+            }
+        }
+        assertEquals(gn.getTrace().iteration(), iterations);
+        assertEquals(g.edgeCount(), removed);
+        assertTrue(phases >= 3 * iterations);
+        // Not recording in memory: JFR only
+        assertEquals(0, gn.getTrace().iterationCount());
+    }
+}
@@ -0,0 +1,112 @@
+package com.thenuber.aaga;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SplitLogTest {
+
+    @TempDir
+    Path dir;
+
+    // Ring of small cliques joined by single edges
+    private static CsrGraph ringOfCliques(int cliques, int size) {
+        SimpleGraph g = new SimpleGraph();
+        for (int c = 0; c < cliques; c++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    g.addEdge(c + "_" + i, c + "_" + j);
+                }
+            }
+            g.addEdge(c + "_0", ((c + 1) % cliques) + "_1");
+        }
+        return CsrGraph.of(g);
+    }
+
+    private static void assertSameLevels(Dendrogram expected, Dendrogram actual, int levels) {
+        for (int level = 0; level < levels; level++) {
+            assertArrayEquals(expected.labels(level), actual.labels(level));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        CsrGraph g = ringOfCliques(6, 5);
+        String file = dir.resolve("splits.bin").toString();
+        GraphAlgorithm[] algorithms = { new GirvanNewman(), new Louvain(), new LabelPropagation() };
+        for (GraphAlgorithm algorithm : algorithms) {
+            Dendrogram parts;
+            try (SplitLog log = new SplitLog(file)) {
+                algorithm.setSplitLog(log);
+                parts = algorithm.run(g);
+            }
+            Dendrogram read = SplitLog.read(g, file);
+            assertEquals(parts.levelCount(), read.levelCount());
+            assertEquals(parts.splitCount(), read.splitCount());
+            assertSameLevels(parts, read, parts.levelCount());
+        }
+    }
+
+    @Test
+    public void testStepsAreOnDiskBeforeTheEnd() throws IOException {
+        CsrGraph g = ringOfCliques(6, 5);
+        String file = dir.resolve("splits.bin").toString();
+        SplitLog log = new SplitLog(file);
+        Dendrogram.Builder builder = new Dendrogram.Builder(g, g.connectedComponents(), log);
+        int[] half = new int[g.vertexCount()];
+        for (int v = 0; v < half.length; v++) half[v] = v < half.length / 2 ? 0 : 1;
+        builder.endStep(half);
+
+        // The log is still open: the completed step is already readable
+        Dendrogram read = SplitLog.read(g, file);
+        assertEquals(2, read.levelCount());
+        assertEquals(2, read.communityCount(1));
+        log.close();
+    }
+
+    @Test
+    public void testTruncatedLogKeepsCompletedSteps() throws IOException {
+        CsrGraph g = ringOfCliques(6, 5);
+        Path file = dir.resolve("splits.bin");
+        GirvanNewman gn = new GirvanNewman();
+        Dendrogram parts;
+        try (SplitLog log = new SplitLog(file.toString())) {
+            gn.setSplitLog(log);
+            parts = gn.run(g);
+        }
+
+        long size = Files.size(file);
+        for (long cut : new long[] { size - 2, size - 4, size / 2 }) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(cut);
+            }
+            Dendrogram read = SplitLog.read(g, file.toString());
+            assertTrue(read.levelCount() < parts.levelCount());
+            assertSameLevels(parts, read, read.levelCount());
+        }
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        CsrGraph g = ringOfCliques(3, 4);
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+        assertThrows(IOException.class, () -> SplitLog.read(g, file.toString()));
+
+        String log = dir.resolve("splits.bin").toString();
+        try (SplitLog splitLog = new SplitLog(log)) {
+            new Dendrogram.Builder(g, g.connectedComponents(), splitLog).build();
+        }
+        assertThrows(IOException.class, () -> SplitLog.read(ringOfCliques(4, 4), log));
+    }
+}
@@ -0,0 +1,115 @@
+package com.thenuber.aaga;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StopCriteriaTest {
+
+    // Ring of small cliques joined by single edges
+    private static CsrGraph ringOfCliques(int cliques, int size) {
+        SimpleGraph g = new SimpleGraph();
+        for (int c = 0; c < cliques; c++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    g.addEdge(c + "_" + i, c + "_" + j);
+                }
+            }
+            g.addEdge(c + "_0", ((c + 1) % cliques) + "_1");
+        }
+        return CsrGraph.of(g);
+    }
+
+    // Planted partition: groups of size vertices, dense inside, a few edges between groups
+    private static CsrGraph plantedPartition(int groups, int size, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        SimpleGraph g = new SimpleGraph();
+        int n = groups * size;
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                double p = u / size == v / size ? 0.5 : 0.01;
+                if (rng.nextDouble() < p) g.addEdge("v" + u, "v" + v);
+            }
+        }
+        return CsrGraph.of(g);
+    }
+
+    private static double bestModularity(CsrGraph g, Dendrogram parts) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int level = 0; level < parts.levelCount(); level++) {
+            best = Math.max(best, Modularity.compute(g, parts.labels(level)));
+        }
+        return best;
+    }
+
+    private static GraphAlgorithm[] algorithms() {
+        BetweennessSamplingAlgo bsa = new BetweennessSamplingAlgo();
+        bsa.setSeed(11);
+        return new GraphAlgorithm[] { new GirvanNewman(), new GirvanNewmanRevised(), bsa };
+    }
+
+    // Same algorithm run without criteria: the stopped run must be a prefix of it
+    private static void assertPrefix(Dendrogram full, Dendrogram stopped) {
+        assertTrue(stopped.levelCount() <= full.levelCount());
+        for (int level = 0; level < stopped.levelCount(); level++) {
+            assertArrayEquals(full.labels(level), stopped.labels(level));
+        }
+    }
+
+    @Test
+    public void testStopsAtCommunityCount() {
+        CsrGraph g = ringOfCliques(8, 5);
+        for (GraphAlgorithm algorithm : algorithms()) {
+            Dendrogram full = algorithm.run(g);
+
+            StopCriteria stop = new StopCriteria();
+            stop.setCommunities(4);
+            algorithm.setStopCriteria(stop);
+            Dendrogram stopped = algorithm.run(g);
+
+            int last = stopped.levelCount() - 1;
+            assertTrue(stopped.communityCount(last) >= 4);
+            assertTrue(stopped.communityCount(last - 1) < 4);
+            assertPrefix(full, stopped);
+        }
+    }
+
+    @Test
+    public void testModularityCriteriaKeepThePeak() {
+        CsrGraph g = plantedPartition(6, 10, 5);
+        for (GraphAlgorithm algorithm : algorithms()) {
+            Dendrogram full = algorithm.run(g);
+            double best = bestModularity(g, full);
+
+            StopCriteria drop = new StopCriteria();
+            drop.setModularityDrop(0.05);
+            algorithm.setStopCriteria(drop);
+            Dendrogram dropped = algorithm.run(g);
+            assertTrue(dropped.levelCount() < full.levelCount());
+            assertPrefix(full, dropped);
+            assertEquals(best, bestModularity(g, dropped), 1e-12);
+
+            StopCriteria patience = new StopCriteria();
+            patience.setPatience(5);
+            algorithm.setStopCriteria(patience);
+            Dendrogram patient = algorithm.run(g);
+            assertTrue(patient.levelCount() < full.levelCount());
+            assertPrefix(full, patient);
+            assertEquals(best, bestModularity(g, patient), 1e-12);
+        }
+    }
+
+    @Test
+    public void testInvalidCriteria() {
+        StopCriteria stop = new StopCriteria();
+        assertThrows(IllegalArgumentException.class, () -> stop.setModularityDrop(0.0));
+        assertThrows(IllegalArgumentException.class, () -> stop.setPatience(-1));
+        assertThrows(IllegalArgumentException.class, () -> stop.setCommunities(-2));
+        assertTrue(!stop.isEnabled());
+    }
+}
@@ -1,7 +1,7 @@
 @echo off
 REM run.bat - Windows helper to run common project targets
 REM Usage: run.bat ^<target^>
-REM Targets: package, test, run-sample, run-newman, clean
+REM Targets: package, test, run-sample, run-newman, bench, clean
 
 setlocal
 
@@ -20,14 +20,20 @@ if /I "%~1"=="test" (
 )
 
 if /I "%~1"=="run-sample" (
-    echo Running: java -jar target\aaga-projet-0.1.0-SNAPSHOT.jar -i data\sample.edgelist -o results\sample
-    java -jar "target\aaga-projet-0.1.0-SNAPSHOT.jar" -i "data\sample.edgelist" -o "results\sample" -a bsa
+    echo Running: java -jar core\target\aaga-projet-0.1.0-SNAPSHOT.jar -i data\sample.edgelist -o results\sample
+    java -jar "core\target\aaga-projet-0.1.0-SNAPSHOT.jar" -i "data\sample.edgelist" -o "results\sample" -a bsa
     goto :eof
 )
 
 if /I "%~1"=="run-newman" (
-    echo Running: java -jar target\aaga-projet-0.1.0-SNAPSHOT.jar -i data\sample.edgelist -o results\big
-    java -jar "target\aaga-projet-0.1.0-SNAPSHOT.jar" -i "data\sample.edgelist" -o "results\newman"
+    echo Running: java -jar core\target\aaga-projet-0.1.0-SNAPSHOT.jar -i data\sample.edgelist -o results\big
+    java -jar "core\target\aaga-projet-0.1.0-SNAPSHOT.jar" -i "data\sample.edgelist" -o "results\newman"
+    goto :eof
+)
+
+if /I "%~1"=="bench" (
+    echo Running: java -jar benchmarks\target\benchmarks.jar %2
+    java -jar "benchmarks\target\benchmarks.jar" %2
     goto :eof
 )
 
@@ -40,5 +46,5 @@ if /I "%~1"=="clean" (
 
 :usage
 echo Usage: run.bat ^<target^>
-echo Targets: package, test, run-sample, run-newman, clean
+echo Targets: package, test, run-sample, run-newman, bench, clean
 endlocal
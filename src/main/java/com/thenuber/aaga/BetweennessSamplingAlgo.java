@@ -1,193 +0,0 @@
-package com.thenuber.aaga;
-
-import java.lang.reflect.Array;
-import java.util.*;
-import java.util.stream.Collectors;
-
-public class BetweennessSamplingAlgo implements GraphAlgorithm {
-
-    private int vertexDiameter = -1;
-    private int vdSamples = 10;
-    private double epsilon = 0.2; // accuracy parameter : smaller = more accurate
-    private double delta = 0.3; // probability parameter : smaller = more reliable but increased sample size
-    private double c = 1.0; // constant (can be adjusted)
-
-    public BetweennessSamplingAlgo() { }
-
-    public void setVertexDiameter(int vertexDiameter) { this.vertexDiameter = vertexDiameter; }
-    public void setVDSamples(int vdSamples) { this.vdSamples = vdSamples; }
-    public void setEpsilon(double epsilon) { this.epsilon = epsilon; }
-    public void setDelta(double delta) { this.delta = delta; }
-    public void setC(double c) { this.c = c; }
-
-    public List<Map<Vertex, Integer>> run(SimpleGraph input) {
-        SimpleGraph g = new SimpleGraph(input);
-        List<Map<Vertex, Integer>> partitions = new ArrayList<>();
-
-        while (g.edgeCount() > 0) {
-            Map<Edge, Double> eb = sampledEdgeBetweenness(g);
-
-            double max = eb.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
-            List<Edge> toRemove = new ArrayList<>();
-            for (Map.Entry<Edge, Double> e : eb.entrySet()) {
-                if (Double.compare(e.getValue(), max) == 0) {
-                    toRemove.add(e.getKey());
-                }
-            }
-
-            for (Edge e : toRemove) {
-                g.removeEdge(e.u, e.v);
-            }
-
-            partitions.add(g.getConnectedComponents());
-        }
-
-        return partitions;
-    }
-
-    public Map<Edge, Double> sampledEdgeBetweenness(SimpleGraph input) {
-
-        Map<Edge, Double> bc = new HashMap<>();
-
-        if (vertexDiameter == -1) {
-            vertexDiameter = getVertexDiameterApproximation(input);
-        }
-        int r = computeSampleSize();
-
-        // Precompute connected components in which there is at least one path
-
-        Map<Vertex, Integer> ccPartition = input.getConnectedComponents();
-        Map<Integer, ArrayList<Vertex>> connectedComponents = new HashMap<>();
-        for (Map.Entry<Vertex, Integer> e : ccPartition.entrySet()) {
-            connectedComponents.putIfAbsent(e.getValue(), new ArrayList<>());
-            connectedComponents.get(e.getValue()).add(e.getKey());
-        }
-        ArrayList<Integer> ccWithEdges = new ArrayList<>();
-        for (Map.Entry<Integer, ArrayList<Vertex>>e : connectedComponents.entrySet()) {
-            if (e.getValue().size() > 1) {
-                ccWithEdges.add(e.getKey());
-            }
-        }
-
-        // If all nodes are isolated, return directly
-        if (ccWithEdges.isEmpty()) {
-            return bc;
-        }
-        
-        Random rng = new Random();
-
-        for (int k = 0; k < r; k++) {
-            // Sample a random connected component 
-            // No matter the probability distribution since all will be treated
-            int randomCC = ccWithEdges.get(rng.nextInt(ccWithEdges.size()));
-            ArrayList<Vertex> connectedNodes = connectedComponents.get(randomCC);
-
-            Vertex u = connectedNodes.get(rng.nextInt(connectedNodes.size()));
-            Vertex v = connectedNodes.get(rng.nextInt(connectedNodes.size()));
-            while (u.equals(v)) {
-                v = connectedNodes.get(rng.nextInt(connectedNodes.size()));
-            }
-
-            // Sample random path
-            List<Edge> randomShortestPath = computeRandomShortestPath(input, u, v);
-
-            // Increase edge betweenness
-            for (Edge e : randomShortestPath) {
-                double value = bc.getOrDefault(e, 0.0);
-                bc.put(e, value + 1.0 / r);
-            }
-        }
-
-        return bc;
-    }
-
-    public int computeSampleSize() {
-        if (vertexDiameter <= 2) {
-            throw new IllegalArgumentException("vertexDiameter must be greater than 2");
-        }
-        if (epsilon <= 0 || epsilon >= 1) {
-            throw new IllegalArgumentException("epsilon must be in (0,1)");
-        }
-        if (delta <= 0 || delta >= 1) {
-            throw new IllegalArgumentException("delta must be in (0,1)");
-        }
-
-        int d = (int) (Math.log(vertexDiameter - 2) / Math.log(2)) + 1;
-        double lnInvDelta = Math.log(1.0 / delta);
-        double r = c / (epsilon * epsilon) * (d + lnInvDelta);
-        return (int) Math.ceil(r);
-    }
-
-    public int getVertexDiameterApproximation(SimpleGraph g) {
-        int VD = 0;
-        for (int i = 0; i < vdSamples; i++) {
-            Vertex source = g.randomNode();
-            ArrayList<Integer> distanceValues = new ArrayList<>(g.getDistances(source).values());
-            if (distanceValues.isEmpty()) continue;
-            distanceValues.sort((x1, x2) -> -Integer.compare(x1, x2));
-
-            int diameterSample = distanceValues.size() < 2
-                    ? distanceValues.get(0)
-                    : distanceValues.get(0) + distanceValues.get(1);
-
-            VD += diameterSample;
-        }
-        return (VD + vdSamples) / vdSamples;
-    }
-
-    public List<Edge> computeRandomShortestPath(SimpleGraph g, Vertex source, Vertex target) {
-        Map<Vertex, List<Vertex>> preds = new HashMap<>();
-        Map<Vertex, Integer> distances = new HashMap<>();
-        Map<Vertex, Integer> sigma = new HashMap<>();
-
-        sigma.put(source, 1);
-        distances.put(source, 0);
-
-        Queue<Vertex> queue = new ArrayDeque<>();
-        queue.add(source);
-
-        while (!queue.isEmpty()) {
-            Vertex v = queue.remove();
-            for (Vertex w : g.neighbors(v)) {
-                if (!distances.containsKey(w)) {
-                    distances.put(w, distances.get(v) + 1);
-                    queue.add(w);
-                }
-
-                if (distances.get(w) == distances.get(v) + 1) {
-                    sigma.put(w, sigma.getOrDefault(w, 0) + sigma.get(v));
-                    preds.putIfAbsent(w, new ArrayList<>());
-                    preds.get(w).add(v);
-                }
-            }
-        }
-
-        List<Edge> randomShortestPath = new ArrayList<>();
-        Random rng = new Random();
-        Vertex v = target;
-
-        while (!v.equals(source)) {
-            /**
-             * Select a predecessor randomly
-             * Probability of choosing predecesor u is sigma.get(u) / sigma.get(v)
-             * 
-             * 1. Generate a random winner ticket in [0, sigma.get(v))
-             * 2. Each predecesor "u" holds the next "sigma.get(u)" tickets, starting from 0
-             * 3. The predecessor with the winner ticket wins
-             */
-            int winner = rng.nextInt(sigma.get(v));
-            int tickets = 0;
-
-            Iterator<Vertex> it = preds.get(v).iterator();
-            Vertex u = null;
-            do {
-                u = it.next();
-                tickets += sigma.get(u);
-            } while (tickets < winner);
-            
-            randomShortestPath.add(new Edge(u, v));
-            v = u;
-        }
-        return randomShortestPath;
-    }
-}
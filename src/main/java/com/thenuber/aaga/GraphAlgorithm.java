@@ -1,7 +0,0 @@
-package com.thenuber.aaga;
-
-import java.util.*;
-
-public interface GraphAlgorithm {
-    public List<Map<Vertex,Integer>> run(SimpleGraph input);
-}
\ No newline at end of file